@@ -0,0 +1,120 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: time from JVM launch to the first successful request, and RSS at that point.
+#
+#   ./mvnw -Paot-cds -DskipTests package
+#   scripts/startup-benchmark.sh [runs] [modes...]
+#
+# Modes:
+#   default  fat jar, default configuration (ddl-auto update, Swagger, H2 console)
+#   prod     fat jar, prod profile
+#   aot-cds  extracted jar, prod profile, AOT initializers and the CDS archive from the build
+#
+# Environment: PORT (default 18080), JAVA (default java), JAVA_OPTS (extra JVM flags for every mode).
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+shift || true
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+  MODES=(default prod aot-cds)
+fi
+
+PORT="${PORT:-18080}"
+JAVA="${JAVA:-java}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$(ls "$ROOT"/target/crud_project-*.jar 2>/dev/null | grep -v '\.original$' | head -n 1 || true)"
+CDS_DIR="$ROOT/target/cds"
+URL="http://localhost:$PORT/api/transactions?limit=1"
+
+if [ -z "$JAR" ]; then
+  echo "No jar in target/, run ./mvnw -Paot-cds -DskipTests package first" >&2
+  exit 1
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+rss_kb() {
+  if [ -r "/proc/$1/status" ]; then
+    awk '/^VmRSS:/ { print $2 }' "/proc/$1/status"
+  else
+    ps -o rss= -p "$1" | tr -d ' '
+  fi
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { if (NR % 2) print v[(NR + 1) / 2]; else print int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+start_app() {
+  local mode="$1"
+  local log="$2"
+  # shellcheck disable=SC2086
+  case "$mode" in
+    default)
+      $JAVA ${JAVA_OPTS:-} -jar "$JAR" --server.port="$PORT" >"$log" 2>&1 &
+      ;;
+    prod)
+      $JAVA ${JAVA_OPTS:-} -jar "$JAR" --spring.profiles.active=prod --server.port="$PORT" >"$log" 2>&1 &
+      ;;
+    aot-cds)
+      if [ ! -f "$CDS_DIR/application.jsa" ]; then
+        echo "No CDS archive in $CDS_DIR, build with -Paot-cds" >&2
+        exit 1
+      fi
+      (cd "$CDS_DIR" && exec $JAVA ${JAVA_OPTS:-} -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+        -jar "$(basename "$JAR")" --spring.profiles.active=prod --server.port="$PORT") >"$log" 2>&1 &
+      ;;
+    *)
+      echo "Unknown mode: $mode" >&2
+      exit 1
+      ;;
+  esac
+  echo $!
+}
+
+run_once() {
+  local mode="$1"
+  local log
+  log="$(mktemp)"
+
+  local start pid
+  start="$(now_ms)"
+  pid="$(start_app "$mode" "$log")"
+
+  # primeiro pedido com resposta 200 (não só o health): inclui o warm-up do DispatcherServlet
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" = "200" ]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "$mode: application exited before serving a request, log: $log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+
+  local elapsed rss
+  elapsed=$(( $(now_ms) - start ))
+  rss="$(rss_kb "$pid")"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  rm -f "$log"
+
+  echo "$elapsed $rss"
+}
+
+printf '%-8s %6s %22s %14s\n' mode runs "first request (ms)" "RSS (MB)"
+for mode in "${MODES[@]}"; do
+  times=()
+  rss=()
+  for ((i = 1; i <= RUNS; i++)); do
+    read -r t r < <(run_once "$mode")
+    times+=("$t")
+    rss+=("$r")
+  done
+  t_median="$(printf '%s\n' "${times[@]}" | median)"
+  r_median="$(printf '%s\n' "${rss[@]}" | median)"
+  printf '%-8s %6d %22d %14d\n' "$mode" "$RUNS" "$t_median" $(( r_median / 1024 ))
+done
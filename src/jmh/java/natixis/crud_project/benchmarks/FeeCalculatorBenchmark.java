@@ -0,0 +1,57 @@
+package natixis.crud_project.benchmarks;
+
+import natixis.crud_project.transfer.utils.TaxCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaxCalculator.calculateFee for every tier (A, B and each C day bucket).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FeeCalculatorBenchmark {
+
+    @Param({"A", "B", "C_11_20", "C_21_30", "C_31_40", "C_OVER_40"})
+    public String tier;
+
+    private BigDecimal amount;
+    private long amountCents;
+    private LocalDate scheduledDate;
+    private LocalDate today;
+
+    @Setup
+    public void setup() {
+        today = LocalDate.now();
+        switch (tier) {
+            case "A" -> { amount = new BigDecimal("500.00"); scheduledDate = today; }
+            case "B" -> { amount = new BigDecimal("1500.00"); scheduledDate = today.plusDays(5); }
+            case "C_11_20" -> { amount = new BigDecimal("3000.00"); scheduledDate = today.plusDays(15); }
+            case "C_21_30" -> { amount = new BigDecimal("3000.00"); scheduledDate = today.plusDays(25); }
+            case "C_31_40" -> { amount = new BigDecimal("3000.00"); scheduledDate = today.plusDays(35); }
+            default -> { amount = new BigDecimal("3000.00"); scheduledDate = today.plusDays(60); }
+        }
+        amountCents = amount.movePointRight(2).longValueExact();
+    }
+
+    @Benchmark
+    public BigDecimal calculateFee() {
+        return TaxCalculator.calculateFee(amount, scheduledDate);
+    }
+
+    @Benchmark
+    public BigDecimal calculateFeeWithKnownToday() {
+        return TaxCalculator.calculateFee(amount, scheduledDate, today);
+    }
+
+    @Benchmark
+    public long calculateFeeCents() {
+        return TaxCalculator.calculateFeeCents(amountCents, scheduledDate, today);
+    }
+}
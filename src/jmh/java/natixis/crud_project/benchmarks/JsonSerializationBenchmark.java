@@ -0,0 +1,59 @@
+package natixis.crud_project.benchmarks;
+
+import natixis.crud_project.transfer.dto.TransactionResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of TransactionResponse lists, the cost behind every list/get response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private JsonMapper mapper;
+    private List<TransactionResponse> responses;
+
+    @Setup
+    public void setup() {
+        mapper = JsonMapper.builder().build();
+        responses = sampleResponses(size);
+    }
+
+    @Benchmark
+    public byte[] serializeList() {
+        return mapper.writeValueAsBytes(responses);
+    }
+
+    static List<TransactionResponse> sampleResponses(int size) {
+        List<TransactionResponse> list = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            TransactionResponse r = new TransactionResponse();
+            r.setId((long) i + 1);
+            r.setOriginAccount("PT5000000000000000000" + i);
+            r.setDestinationAccount("PT6000000000000000000" + i);
+            r.setAmount(new BigDecimal("3000.00").add(BigDecimal.valueOf(i)));
+            r.setScheduledDate(LocalDate.now().plusDays(15));
+            r.setFee(new BigDecimal("246.00"));
+            r.setFeeScheduleVersion("2025.1");
+            r.setCreatedAt(now);
+            list.add(r);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,41 @@
+package natixis.crud_project.benchmarks;
+
+import natixis.crud_project.transfer.dto.TransactionRequest;
+import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.utils.TransactionMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionMapper.toEntity -> toResponse round-trip, as done on every create.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransactionMapperBenchmark {
+
+    private TransactionRequest request;
+
+    @Setup
+    public void setup() {
+        request = new TransactionRequest("PT50000000000000000000001", "PT50000000000000000000002",
+                new BigDecimal("1500.00"), LocalDate.now().plusDays(5));
+    }
+
+    @Benchmark
+    public TransactionResponse roundTrip() {
+        Transaction entity = TransactionMapper.toEntity(request);
+        entity.setId(1L);
+        entity.setFee(new BigDecimal("135.00"));
+        entity.setCreatedAt(LocalDateTime.now());
+        return TransactionMapper.toResponse(entity);
+    }
+}
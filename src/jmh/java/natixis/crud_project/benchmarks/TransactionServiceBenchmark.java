@@ -0,0 +1,55 @@
+package natixis.crud_project.benchmarks;
+
+import natixis.crud_project.CrudProjectApplication;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.services.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionService.create end-to-end against the embedded H2 database (no HTTP layer).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TransactionService service;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        SpringApplication app = new SpringApplication(CrudProjectApplication.class);
+        app.setWebApplicationType(WebApplicationType.NONE);
+        context = app.run(
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.url=jdbc:h2:mem:benchdb;DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN");
+        service = context.getBean(TransactionService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Transaction create() {
+        Transaction t = new Transaction();
+        t.setOriginAccount("PT5000");
+        t.setDestinationAccount("PT6000");
+        t.setAmount(new BigDecimal("1500.00"));
+        t.setScheduledDate(LocalDate.now().plusDays(5));
+        return service.create(t);
+    }
+}
@@ -0,0 +1,78 @@
+package natixis.crud_project.benchmarks;
+
+import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.utils.TransactionBinaryReader;
+import natixis.crud_project.transfer.utils.TransactionBinaryWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against the binary wire format for the same TransactionResponse lists, both directions.
+ * Payload sizes are printed once per size at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<TransactionResponse>> RESPONSE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private JsonMapper mapper;
+    private List<TransactionResponse> responses;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = JsonMapper.builder().build();
+        responses = JsonSerializationBenchmark.sampleResponses(size);
+        json = serializeJson();
+        binary = serializeBinary();
+        System.out.printf("%n%d records: json %d bytes, binary %d bytes (%.0f%%)%n", size, json.length,
+                binary.length, 100.0 * binary.length / json.length);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return mapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size * 128);
+        TransactionBinaryWriter writer = new TransactionBinaryWriter(out);
+        for (TransactionResponse r : responses) {
+            writer.write(r);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public List<TransactionResponse> deserializeJson() {
+        return mapper.readValue(json, RESPONSE_LIST);
+    }
+
+    @Benchmark
+    public void deserializeBinary(Blackhole bh) throws IOException {
+        TransactionBinaryReader reader = new TransactionBinaryReader(new ByteArrayInputStream(binary));
+        TransactionResponse r;
+        while ((r = reader.readResponse()) != null) {
+            bh.consume(r);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package natixis.crud_project.transfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the archiver ({@code transfer.archive}).
+ */
+@Data
+@ConfigurationProperties(prefix = "transfer.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = false;
+
+    // transações agendadas há mais do que isto saem da tabela quente
+    private Duration retention = Duration.ofDays(90);
+
+    // linhas movidas por transação
+    private int batchSize = 1000;
+
+    private Duration interval = Duration.ofHours(1);
+
+    // meses completos mantidos no arquivo; 0 = para sempre
+    private int keepMonths = 0;
+}
@@ -0,0 +1,21 @@
+package natixis.crud_project.transfer.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers the binary wire format after the JSON converter, so it is only chosen when the client
+ * asks for application/x-transfer-binary; no Accept header or {@code *}/{@code *} still gets JSON.
+ */
+@Configuration
+public class BinaryWireConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // um bean HttpMessageConverter ficava à frente do Jackson e respondia binário a */*
+        converters.add(new TransactionBinaryHttpMessageConverter());
+    }
+}
@@ -0,0 +1,19 @@
+package natixis.crud_project.transfer.config;
+
+import natixis.crud_project.transfer.services.LoggingTransferExecutor;
+import natixis.crud_project.transfer.services.TransferExecutor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ExecutionProperties.class)
+public class ExecutionConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(TransferExecutor.class)
+    public TransferExecutor transferExecutor() {
+        return new LoggingTransferExecutor();
+    }
+}
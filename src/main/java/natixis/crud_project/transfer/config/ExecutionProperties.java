@@ -0,0 +1,39 @@
+package natixis.crud_project.transfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the scheduled-transfer executor ({@code transfer.execution}).
+ */
+@Data
+@ConfigurationProperties(prefix = "transfer.execution")
+public class ExecutionProperties {
+
+    private boolean enabled = false;
+
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    // linhas reclamadas por transação de claim
+    private int claimSize = 1000;
+
+    // linhas por tarefa enviada aos workers (e por UPDATE de conclusão)
+    private int workerBatchSize = 100;
+
+    private int workers = 8;
+
+    // backpressure: máximo de transações reclamadas e ainda não concluídas neste nó
+    private int maxInFlight = 10_000;
+
+    private int maxAttempts = 3;
+
+    // espera depois da 1.ª tentativa falhada; duplica a cada falha seguinte, até maxRetryBackoff
+    private Duration retryBackoff = Duration.ofSeconds(30);
+
+    private Duration maxRetryBackoff = Duration.ofMinutes(30);
+
+    // uma claim mais antiga do que isto é considerada abandonada
+    private Duration claimTimeout = Duration.ofMinutes(5);
+}
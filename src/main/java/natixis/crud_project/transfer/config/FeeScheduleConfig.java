@@ -0,0 +1,9 @@
+package natixis.crud_project.transfer.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(FeeScheduleProperties.class)
+public class FeeScheduleConfig {
+}
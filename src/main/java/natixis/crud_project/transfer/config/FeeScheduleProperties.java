@@ -0,0 +1,46 @@
+package natixis.crud_project.transfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fee table bound from {@code transfer.fees}.
+ * When {@code location} is set, the same structure is read from that YAML file instead
+ * and re-read whenever the file changes.
+ */
+@Data
+@ConfigurationProperties(prefix = "transfer.fees")
+public class FeeScheduleProperties {
+
+    private String version;
+
+    // ex: file:/etc/transfer/fees.yaml
+    private String location;
+
+    private Duration reloadInterval = Duration.ofSeconds(30);
+
+    private List<Band> bands = new ArrayList<>();
+
+    @Data
+    public static class Band {
+        private String tier;
+        // null = sem limite superior
+        private BigDecimal upTo;
+        private String rejectionMessage;
+        private List<Rule> rules = new ArrayList<>();
+    }
+
+    @Data
+    public static class Rule {
+        private long minDays;
+        // null = sem limite superior
+        private Long maxDays;
+        private BigDecimal rate;
+        private BigDecimal fixedFee;
+    }
+}
@@ -0,0 +1,20 @@
+package natixis.crud_project.transfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the CSV bulk import ({@code transfer.import}).
+ */
+@Data
+@ConfigurationProperties(prefix = "transfer.import")
+public class ImportProperties {
+
+    // onde ficam os ficheiros recebidos e os relatórios de rejeições
+    private String directory = System.getProperty("java.io.tmpdir") + "/transfer-imports";
+
+    // linhas por chunk: validadas em paralelo, inseridas e com checkpoint numa só transação
+    private int chunkSize = 5000;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,23 @@
+package natixis.crud_project.transfer.config;
+
+import natixis.crud_project.transfer.services.ChangeSink;
+import natixis.crud_project.transfer.services.FileChangeSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "transfer.outbox", name = "enabled", havingValue = "true")
+    @ConditionalOnMissingBean(ChangeSink.class)
+    public ChangeSink changeSink(OutboxProperties properties) {
+        return new FileChangeSink(Path.of(properties.getFile()));
+    }
+}
@@ -0,0 +1,27 @@
+package natixis.crud_project.transfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the transactional outbox and its relay ({@code transfer.outbox}).
+ */
+@Data
+@ConfigurationProperties(prefix = "transfer.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = false;
+
+    private Duration relayInterval = Duration.ofMillis(200);
+
+    // registos publicados por transação do relay
+    private int batchSize = 500;
+
+    // registos publicados mais antigos do que isto são apagados; o feed só recua até aqui
+    private Duration retention = Duration.ofDays(7);
+
+    // ficheiro NDJSON do sink por omissão
+    private String file = System.getProperty("java.io.tmpdir") + "/transfer-changes.ndjson";
+}
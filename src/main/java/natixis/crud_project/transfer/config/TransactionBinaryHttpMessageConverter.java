@@ -0,0 +1,119 @@
+package natixis.crud_project.transfer.config;
+
+import natixis.crud_project.transfer.dto.TransactionPage;
+import natixis.crud_project.transfer.dto.TransactionRequest;
+import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.dto.TransactionStatementPage;
+import natixis.crud_project.transfer.utils.TransactionBinaryReader;
+import natixis.crud_project.transfer.utils.TransactionBinaryWriter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractSmartHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content negotiation for the compact binary format of {@link TransactionBinaryWriter}.
+ *
+ * Writes TransactionResponse, collections of it, TransactionPage and TransactionStatementPage; reads TransactionRequest and
+ * lists of it. Any other type (error bodies included) falls back to JSON, so clients should also
+ * accept application/json.
+ */
+public class TransactionBinaryHttpMessageConverter extends AbstractSmartHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(TransactionBinaryWriter.MEDIA_TYPE);
+
+    public TransactionBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    public boolean canRead(ResolvableType type, MediaType mediaType) {
+        if (!canRead(mediaType)) {
+            return false;
+        }
+        Class<?> clazz = type.resolve();
+        return clazz == TransactionRequest.class
+                || (clazz != null && List.class.isAssignableFrom(clazz)
+                && type.asCollection().getGeneric().resolve() == TransactionRequest.class);
+    }
+
+    @Override
+    public boolean canWrite(ResolvableType type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (clazz == TransactionResponse.class || clazz == TransactionPage.class
+                || clazz == TransactionStatementPage.class) {
+            return true;
+        }
+        if (!Collection.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        // sem tipo genérico declarado (ex.: ResponseEntity<?>) decide pelos elementos ao escrever
+        Class<?> element = type.asCollection().getGeneric().resolve();
+        return element == null || element == TransactionResponse.class;
+    }
+
+    @Override
+    public Object read(ResolvableType type, HttpInputMessage inputMessage, Map<String, Object> hints)
+            throws IOException, HttpMessageNotReadableException {
+        TransactionBinaryReader reader = new TransactionBinaryReader(inputMessage.getBody());
+        try {
+            if (type.resolve() == TransactionRequest.class) {
+                TransactionRequest request = reader.readRequest();
+                if (request == null) {
+                    throw new HttpMessageNotReadableException("Empty binary request body", inputMessage);
+                }
+                return request;
+            }
+            List<TransactionRequest> requests = new ArrayList<>();
+            for (TransactionRequest request = reader.readRequest(); request != null; request = reader.readRequest()) {
+                requests.add(request);
+            }
+            return requests;
+        } catch (IOException ex) {
+            throw new HttpMessageNotReadableException("Malformed binary request body: " + ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object body, ResolvableType type, HttpOutputMessage outputMessage,
+                                 Map<String, Object> hints) throws IOException, HttpMessageNotWritableException {
+        OutputStream out = new BufferedOutputStream(outputMessage.getBody(), 64 * 1024);
+        TransactionBinaryWriter writer = new TransactionBinaryWriter(out);
+
+        if (body instanceof TransactionResponse response) {
+            writer.write(response);
+        } else if (body instanceof TransactionPage page) {
+            writer.writeCursor(page.getNextCursor());
+            for (TransactionResponse item : page.getItems()) {
+                writer.write(item);
+            }
+        } else if (body instanceof TransactionStatementPage page) {
+            writer.writeCursor(page.getNextDate(), page.getNextId());
+            for (TransactionResponse item : page.getItems()) {
+                writer.write(item);
+            }
+        } else {
+            for (Object item : (Collection<?>) body) {
+                if (!(item instanceof TransactionResponse response)) {
+                    throw new HttpMessageNotWritableException("Cannot write " + item.getClass().getName()
+                            + " as " + MEDIA_TYPE);
+                }
+                writer.write(response);
+            }
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,98 @@
+package natixis.crud_project.transfer.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.boot.tomcat.ConfigurableTomcatWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode ({@code spring.threads.virtual.enabled=true}).
+ *
+ * Spring Boot already runs Tomcat requests and the application task executor on virtual threads
+ * in this mode; here the DataSource is wrapped in a {@link ConnectionGateDataSource} so that
+ * the many blocked virtual threads queue for a connection instead of timing out in the pool,
+ * and Tomcat accepts more connections than it had threads. None of it is registered in
+ * platform-thread mode, which keeps Hikari's connection-timeout and the Tomcat defaults.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionGatePostProcessor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${transfer.virtual-threads.connection-wait:60s}") Duration maxWait) {
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionGateDataSource)) {
+                    return new ConnectionGateDataSource(dataSource, poolSize, maxWait);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public TomcatConnectionLimits tomcatConnectionLimits(
+            @Value("${transfer.virtual-threads.max-connections:20000}") int maxConnections,
+            @Value("${transfer.virtual-threads.accept-count:1000}") int acceptCount) {
+        return new TomcatConnectionLimits(maxConnections, acceptCount);
+    }
+
+    @Bean
+    public MeterBinder connectionGateMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionGateDataSource gate) {
+                Gauge.builder("transfer.db.gate.waiting", gate, ConnectionGateDataSource::queueLength)
+                        .description("Threads waiting for a database connection permit")
+                        .register(registry);
+                Gauge.builder("transfer.db.gate.available", gate, ConnectionGateDataSource::availablePermits)
+                        .description("Free database connection permits")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Connection limits for the Tomcat connector. Runs after the server.tomcat.* customizer so these values win.
+     */
+    public static class TomcatConnectionLimits
+            implements WebServerFactoryCustomizer<ConfigurableTomcatWebServerFactory>, Ordered {
+
+        private final int maxConnections;
+        private final int acceptCount;
+
+        public TomcatConnectionLimits(int maxConnections, int acceptCount) {
+            this.maxConnections = maxConnections;
+            this.acceptCount = acceptCount;
+        }
+
+        @Override
+        public void customize(ConfigurableTomcatWebServerFactory factory) {
+            factory.addConnectorCustomizers(connector -> {
+                if (connector.getProtocolHandler() instanceof AbstractProtocol<?> protocol) {
+                    protocol.setMaxConnections(maxConnections);
+                    protocol.setAcceptCount(acceptCount);
+                }
+            });
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package natixis.crud_project.transfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the write-behind create pipeline ({@code transfer.write-behind}).
+ */
+@Data
+@ConfigurationProperties(prefix = "transfer.write-behind")
+public class WriteBehindProperties {
+
+    private boolean enabled = false;
+
+    // pedidos à espera de commit; com a fila cheia o pedido espera offerTimeout e depois recebe 503
+    private int capacity = 8192;
+
+    private Duration offerTimeout = Duration.ofMillis(100);
+
+    // linhas por commit
+    private int batchSize = 500;
+
+    // tempo máximo que o primeiro pedido de um batch espera por mais pedidos
+    private Duration maxDelay = Duration.ofMillis(5);
+}
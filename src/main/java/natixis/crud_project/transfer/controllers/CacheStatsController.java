@@ -0,0 +1,35 @@
+package natixis.crud_project.transfer.controllers;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import natixis.crud_project.transfer.services.TransactionCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheStatsController {
+
+    private final TransactionCache transactionCache;
+
+    public CacheStatsController(TransactionCache transactionCache) {
+        this.transactionCache = transactionCache;
+    }
+
+    @GetMapping("/transactions")
+    public ResponseEntity<Map<String, Object>> transactions() {
+        CacheStats stats = transactionCache.stats();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", transactionCache.size());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictions", stats.evictionCount());
+        return ResponseEntity.ok(body);
+    }
+}
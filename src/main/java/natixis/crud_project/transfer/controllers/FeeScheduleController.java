@@ -0,0 +1,37 @@
+package natixis.crud_project.transfer.controllers;
+
+import natixis.crud_project.transfer.services.FeeScheduleService;
+import natixis.crud_project.transfer.utils.FeeSchedule;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/fee-schedule")
+public class FeeScheduleController {
+
+    private final FeeScheduleService service;
+
+    public FeeScheduleController(FeeScheduleService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> current() {
+        return ResponseEntity.ok(describe(service.current()));
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Object>> reload() {
+        return ResponseEntity.ok(describe(service.reload()));
+    }
+
+    private Map<String, Object> describe(FeeSchedule schedule) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("version", schedule.getVersion());
+        body.put("loadedAt", service.getLoadedAt());
+        return body;
+    }
+}
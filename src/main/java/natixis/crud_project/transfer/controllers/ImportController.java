@@ -0,0 +1,77 @@
+package natixis.crud_project.transfer.controllers;
+
+import natixis.crud_project.transfer.dto.ImportJobResponse;
+import natixis.crud_project.transfer.models.ImportJob;
+import natixis.crud_project.transfer.services.TransactionImportService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+
+/**
+ * CSV bulk import: upload a file, follow its progress, download the reject report.
+ */
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+
+    private final TransactionImportService importService;
+
+    public ImportController(TransactionImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobResponse> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        ImportJob job;
+        try (InputStream content = file.getInputStream()) {
+            job = importService.submit(file.getOriginalFilename(), content);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/imports/" + job.getId()))
+                .body(toResponse(job));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobResponse> get(@PathVariable Long id) {
+        return importService.find(id)
+                .map(ImportController::toResponse)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobResponse> resume(@PathVariable Long id) {
+        ImportJob job = importService.resume(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.accepted().body(toResponse(job));
+    }
+
+    // line,reason,content por cada linha rejeitada
+    @GetMapping(value = "/{id}/rejects", produces = "text/csv")
+    public ResponseEntity<Resource> rejects(@PathVariable Long id) {
+        return importService.find(id)
+                .filter(job -> job.getStoredPath() != null)
+                .map(importService::rejectReport)
+                .filter(Files::exists)
+                .map(path -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + id + "-rejects.csv\"")
+                        .<Resource>body(new FileSystemResource(path)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static ImportJobResponse toResponse(ImportJob job) {
+        return new ImportJobResponse(job.getId(), job.getFileName(), job.getStatus(), job.getLinesRead(),
+                job.getImported(), job.getRejected(), job.getCreatedAt(), job.getUpdatedAt(), job.getLastError());
+    }
+}
@@ -1,66 +1,371 @@
 package natixis.crud_project.transfer.controllers;
 
+import natixis.crud_project.transfer.dto.AccountExposure;
+import natixis.crud_project.transfer.dto.FeeQuote;
+import natixis.crud_project.transfer.dto.FeeQuoteBatchResponse;
+import natixis.crud_project.transfer.dto.TransactionBatchResponse;
+import natixis.crud_project.transfer.dto.TransactionChangePage;
+import natixis.crud_project.transfer.dto.TransactionFilter;
+import natixis.crud_project.transfer.dto.TransactionPage;
+import natixis.crud_project.transfer.dto.TransactionPatchRequest;
 import natixis.crud_project.transfer.dto.TransactionRequest;
 import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.dto.TransactionStatementPage;
 import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.services.FeeQuoteService;
+import natixis.crud_project.transfer.services.TransactionExportService;
 import natixis.crud_project.transfer.services.TransactionService;
+import natixis.crud_project.transfer.services.TransactionWriteBehind;
+import natixis.crud_project.transfer.utils.TransactionBinaryWriter;
+import natixis.crud_project.transfer.utils.TransactionLineWriter;
 import natixis.crud_project.transfer.utils.TransactionMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 import javax.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final MediaType NDJSON_TYPE = MediaType.parseMediaType(NDJSON);
+    private static final MediaType BINARY = MediaType.parseMediaType(TransactionBinaryWriter.MEDIA_TYPE);
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final TransactionService service;
+    private final TransactionExportService exportService;
+    private final FeeQuoteService quoteService;
+
+    // só existe com transfer.write-behind.enabled=true
+    private final TransactionWriteBehind writeBehind;
 
-    public TransactionController(TransactionService service) {
+    public TransactionController(TransactionService service,
+                                 TransactionExportService exportService,
+                                 FeeQuoteService quoteService,
+                                 ObjectProvider<TransactionWriteBehind> writeBehind) {
         this.service = service;
+        this.exportService = exportService;
+        this.quoteService = quoteService;
+        this.writeBehind = writeBehind.getIfAvailable();
     }
 
+    /**
+     * With an Idempotency-Key, a retried request returns the transaction created by the first one.
+     * Without one, and with write-behind enabled, the insert joins the next group commit and the
+     * response is sent once that commit completes.
+     */
     @PostMapping
-    public ResponseEntity<TransactionResponse> create(@RequestBody @Valid TransactionRequest request) {
+    public CompletableFuture<ResponseEntity<TransactionResponse>> create(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody @Valid TransactionRequest request) {
         Transaction entity = TransactionMapper.toEntity(request);
-        Transaction saved = service.create(entity);
-        return ResponseEntity.ok(TransactionMapper.toResponse(saved));
+
+        if (writeBehind != null && idempotencyKey == null) {
+            return writeBehind.create(entity)
+                    .thenApply(saved -> ResponseEntity.ok(TransactionMapper.toResponse(saved)));
+        }
+
+        Transaction saved = service.create(entity, idempotencyKey);
+        return CompletableFuture.completedFuture(ResponseEntity.ok(TransactionMapper.toResponse(saved)));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<TransactionBatchResponse> createBatch(@RequestBody List<@Valid TransactionRequest> requests) {
+        List<Transaction> entities = new ArrayList<>(requests.size());
+        for (TransactionRequest request : requests) {
+            // um item null segue para o serviço, que o rejeita no seu índice
+            entities.add(request == null ? null : TransactionMapper.toEntity(request));
+        }
+        return ResponseEntity.ok(service.createBatch(entities));
+    }
+
+    /**
+     * Fee the transfer would be charged if created now, without creating it (no database access).
+     */
+    @PostMapping("/quote")
+    public ResponseEntity<FeeQuote> quote(@RequestBody @Valid TransactionRequest request) {
+        return ResponseEntity.ok(quoteService.quote(request));
+    }
+
+    @PostMapping("/quote/batch")
+    public ResponseEntity<FeeQuoteBatchResponse> quoteBatch(@RequestBody List<@Valid TransactionRequest> requests) {
+        return ResponseEntity.ok(quoteService.quoteBatch(requests));
     }
 
     @GetMapping
-    public ResponseEntity<List<TransactionResponse>> list() {
-        List<TransactionResponse> result =
-                service.listAll().stream()
-                        .map(TransactionMapper::toResponse)
-                        .collect(Collectors.toList());
+    public ResponseEntity<TransactionPage> list(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String account,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        TransactionFilter filter = new TransactionFilter(account, from, to);
+        return ResponseEntity.ok(service.listPage(filter, afterId, limit));
+    }
+
+    /**
+     * Creates, updates and deletes published after position since, in order. Pass nextCursor as since
+     * on the next poll. 404 when the outbox is disabled.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TransactionChangePage> changes(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int limit) {
+
+        if (!service.isChangeFeedEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(service.changes(since, limit));
+    }
 
-        return ResponseEntity.ok(result);
+    /**
+     * Pass nextDate and nextId as afterDate and afterId to get the next page.
+     */
+    @GetMapping("/accounts/{account}")
+    public ResponseEntity<TransactionStatementPage> statement(
+            @PathVariable String account,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int limit) {
+
+        return ResponseEntity.ok(service.statement(account, from, to, afterDate, afterId, limit));
     }
 
+    /**
+     * Outgoing count, amount and fees of the account per scheduled date; defaults to the next 30 days.
+     */
+    @GetMapping("/accounts/{account}/exposure")
+    public ResponseEntity<AccountExposure> exposure(
+            @PathVariable String account,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(30);
+        return ResponseEntity.ok(service.exposure(account, start, end));
+    }
+
+    @GetMapping("/due")
+    public ResponseEntity<TransactionPage> due(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int limit) {
+
+        return ResponseEntity.ok(service.dueOn(date, afterId, limit));
+    }
+
+    /**
+     * NDJSON by default; length-prefixed binary records when Accept names application/x-transfer-binary
+     * ahead of NDJSON. One mapping for both, so a request without Accept or with a wildcard is not ambiguous.
+     */
+    @GetMapping(value = "/stream", produces = {NDJSON, TransactionBinaryWriter.MEDIA_TYPE})
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(required = false) String account,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        TransactionFilter filter = new TransactionFilter(account, from, to);
+
+        if (prefersBinary(accept)) {
+            return ResponseEntity.ok()
+                    .contentType(BINARY)
+                    .body(binaryStream(filter));
+        }
+        return ResponseEntity.ok()
+                .contentType(NDJSON_TYPE)
+                .body(ndjsonStream(filter));
+    }
+
+    private StreamingResponseBody ndjsonStream(TransactionFilter filter) {
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            TransactionLineWriter lines = new TransactionLineWriter(writer);
+
+            service.streamAll(filter, t -> {
+                try {
+                    lines.writeNdjson(TransactionMapper.toResponse(t));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            lines.flush();
+        };
+    }
+
+    private StreamingResponseBody binaryStream(TransactionFilter filter) {
+        return outputStream -> {
+            TransactionBinaryWriter records = new TransactionBinaryWriter(new BufferedOutputStream(outputStream, 64 * 1024));
+
+            service.streamAll(filter, t -> {
+                try {
+                    records.write(TransactionMapper.toResponse(t));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            records.flush();
+        };
+    }
+
+    // o primeiro tipo do Accept que serve decide; wildcards e NDJSON ficam com o formato por omissão
+    private static boolean prefersBinary(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.equalsTypeAndSubtype(BINARY)) {
+                return true;
+            }
+            if (type.includes(NDJSON_TYPE)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Full extract of the transactions scheduled between from and to, as CSV or NDJSON,
+     * gzip-compressed when the client sends Accept-Encoding: gzip.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.parse(format);
+        exportService.validateRange(from, to);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = outputStream -> exportService.export(from, to, exportFormat, gzip, outputStream);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-" + from + "-" + to
+                        + "." + exportFormat.getExtension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Answers 304 when If-None-Match matches the current version: "*", lists of tags and weak
+     * W/"n" tags are compared like the RFC asks (weak comparison).
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<TransactionResponse> get(@PathVariable Long id) {
-        return service.findById(id)
-                .map(TransactionMapper::toResponse)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<TransactionResponse> get(@PathVariable Long id, WebRequest request) {
+
+        Transaction t = service.findIncludingArchive(id).orElse(null);
+        if (t == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = etag(t.getVersion());
+        if (request.checkNotModified(etag)) {
+            // o 304 e o ETag já foram escritos na resposta
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(TransactionMapper.toResponse(t));
     }
 
+    /**
+     * With If-Match, the update only applies if the transaction is still at that version:
+     * 412 when it is not, 409 when another writer commits first.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<TransactionResponse> update(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid TransactionRequest request) {
 
         Transaction entity = TransactionMapper.toEntity(request);
-        Transaction updated = service.update(id, entity);
+        Transaction updated = service.update(id, entity, parseIfMatch(ifMatch));
 
         if (updated == null) {
             return ResponseEntity.notFound().build();
         }
 
-        return ResponseEntity.ok(TransactionMapper.toResponse(updated));
+        return ResponseEntity.ok()
+                .eTag(etag(updated.getVersion()))
+                .body(TransactionMapper.toResponse(updated));
+    }
+
+    /**
+     * Partial update: only the fields present in the body are written, in a single UPDATE.
+     * Answers 204 with the new ETag; honours If-Match like PUT.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody @Valid TransactionPatchRequest request) {
+
+        Transaction patched = service.patch(id, TransactionMapper.toEntity(request), parseIfMatch(ifMatch));
+
+        if (patched == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.noContent()
+                .eTag(etag(patched.getVersion()))
+                .build();
+    }
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // "*" ou ausente = qualquer versão (null). If-Match usa comparação forte: uma tag fraca (W/"n")
+    // ou inválida nunca corresponde, e numa lista basta uma das entradas; sem nenhuma -> 412
+    private static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(value.substring(1, value.length() - 1)));
+            } catch (NumberFormatException ex) {
+                // não é uma versão nossa
+            }
+        }
+        return versions;
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,23 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Outgoing transfers of one account scheduled on one date: count, amount and fee totals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountDayTotal {
+
+    private String account;
+    private LocalDate scheduledDate;
+    private Long count;
+    private BigDecimal amount;
+    private BigDecimal fees;
+}
@@ -0,0 +1,27 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Outgoing transfers of an account scheduled between from and to (inclusive):
+ * totals plus one entry per date that has transfers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountExposure {
+
+    private String account;
+    private LocalDate from;
+    private LocalDate to;
+    private long count;
+    private BigDecimal amount;
+    private BigDecimal fees;
+    private List<AccountDayTotal> days;
+}
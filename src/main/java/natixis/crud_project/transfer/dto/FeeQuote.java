@@ -0,0 +1,23 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fee a transfer would be charged if created now; nothing is stored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeQuote {
+
+    private BigDecimal amount;
+    private LocalDate scheduledDate;
+    private BigDecimal fee;
+    private String tier;
+    private String feeScheduleVersion;
+}
@@ -0,0 +1,23 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a single item of a batch quote.
+ * index is the position of the item in the request; either quote or error is set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeQuoteBatchItem {
+
+    public static final String QUOTED = "QUOTED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private FeeQuote quote;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import natixis.crud_project.transfer.models.ImportJobStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+
+    private Long id;
+    private String fileName;
+    private ImportJobStatus status;
+    private long linesRead;
+    private long imported;
+    private long rejected;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String lastError;
+}
@@ -0,0 +1,17 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchResponse {
+
+    private int created;
+    private int rejected;
+    private List<TransactionBatchItem> results;
+}
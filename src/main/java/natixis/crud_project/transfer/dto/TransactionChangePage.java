@@ -0,0 +1,20 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes published after a position, in order.
+ * nextCursor is the value to pass as since on the next poll; it stays the same when nothing changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionChangePage {
+
+    private List<TransactionChangeResponse> items;
+    private long nextCursor;
+}
@@ -0,0 +1,22 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import natixis.crud_project.transfer.models.ChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the change feed. transaction is the state after the change, or the last state for DELETED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionChangeResponse {
+
+    private Long position;
+    private ChangeType type;
+    private LocalDateTime changedAt;
+    private TransactionResponse transaction;
+}
@@ -0,0 +1,22 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for listing/streaming transactions.
+ * - account: matches originAccount or destinationAccount
+ * - from / to: inclusive scheduledDate range
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionFilter {
+
+    private String account;
+    private LocalDate from;
+    private LocalDate to;
+}
@@ -0,0 +1,27 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import javax.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Partial update: fields left null keep their stored value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPatchRequest {
+
+    private String originAccount;
+
+    private String destinationAccount;
+
+    @Positive(message = "amount must be greater than zero")
+    private BigDecimal amount;
+
+    private LocalDate scheduledDate;
+}
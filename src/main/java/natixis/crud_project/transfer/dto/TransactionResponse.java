@@ -3,6 +3,7 @@ package natixis.crud_project.transfer.dto;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import natixis.crud_project.transfer.models.TransactionStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -19,5 +20,9 @@ public class TransactionResponse {
     private BigDecimal amount;
     private LocalDate scheduledDate;
     private BigDecimal fee;
+    private String feeScheduleVersion;
     private LocalDateTime createdAt;
+    private Long version;
+    private TransactionStatus status;
+    private LocalDateTime executedAt;
 }
@@ -0,0 +1,22 @@
+package natixis.crud_project.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One page of an account statement, ordered by scheduledDate then id.
+ * nextDate and nextId are the afterDate and afterId of the next page, both null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStatementPage {
+
+    private List<TransactionResponse> items;
+    private LocalDate nextDate;
+    private Long nextId;
+}
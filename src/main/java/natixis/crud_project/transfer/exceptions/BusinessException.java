@@ -4,4 +4,9 @@ public class BusinessException extends RuntimeException {
     public BusinessException(String message) {
         super(message);
     }
+
+    // sem stack trace: para rejeições esperadas e frequentes
+    protected BusinessException(String message, boolean writableStackTrace) {
+        super(message, null, writableStackTrace, writableStackTrace);
+    }
 }
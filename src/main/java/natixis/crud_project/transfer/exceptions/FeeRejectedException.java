@@ -0,0 +1,30 @@
+package natixis.crud_project.transfer.exceptions;
+
+import natixis.crud_project.transfer.utils.FeeRejection;
+
+/**
+ * A BusinessException raised by the fee schedule, carrying the rejection reason
+ * and the tier (amount band) it happened in, when known.
+ *
+ * Rejections are an expected outcome, not a fault: the exception has no stack trace and no
+ * suppressed list, so one instance per rejection rule can be created up front and rethrown.
+ */
+public class FeeRejectedException extends BusinessException {
+
+    private final FeeRejection reason;
+    private final String tier;
+
+    public FeeRejectedException(FeeRejection reason, String tier, String message) {
+        super(message, false);
+        this.reason = reason;
+        this.tier = tier;
+    }
+
+    public FeeRejection getReason() {
+        return reason;
+    }
+
+    public String getTier() {
+        return tier;
+    }
+}
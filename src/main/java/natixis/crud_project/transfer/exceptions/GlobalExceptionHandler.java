@@ -1,17 +1,45 @@
 package natixis.crud_project.transfer.exceptions;
 
+import natixis.crud_project.transfer.utils.FeeRejection;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // respostas 422 imutáveis por motivo e mensagem; o conjunto é fixo pela tabela de taxas
+    private final Map<FeeRejection, ConcurrentMap<String, ResponseEntity<Map<String, Object>>>> feeRejections =
+            new EnumMap<>(FeeRejection.class);
+
+    public GlobalExceptionHandler() {
+        for (FeeRejection reason : FeeRejection.values()) {
+            feeRejections.put(reason, new ConcurrentHashMap<>());
+        }
+    }
+
+    @ExceptionHandler(FeeRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleFeeRejected(FeeRejectedException ex) {
+        // 422 - rejeição da tabela de taxas: o mesmo corpo é reutilizado em cada pedido
+        FeeRejection reason = ex.getReason();
+        String message = ex.getMessage() == null ? "" : ex.getMessage();
+        return feeRejections.get(reason).computeIfAbsent(message, m -> ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(Map.of("error", "Business error", "message", m, "code", reason.getCode())));
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<Map<String, Object>> handleBusinessException(BusinessException ex) {
         // 422 - Regras de negócio não atendidas
@@ -22,6 +50,49 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailed(PreconditionFailedException ex) {
+        // 412 - If-Match não corresponde à versão atual
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Precondition failed");
+        response.put("message", ex.getMessage());
+        response.put("currentVersion", ex.getCurrentVersion());
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        // 409 - outra escrita concorrente ganhou
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Conflict");
+        response.put("message", "Transaction was modified concurrently, reload and retry");
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleRejected(RejectedExecutionException ex) {
+        // 503 - fila de escrita cheia, o cliente deve tentar mais tarde
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Service unavailable");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleUploadTooLarge(MaxUploadSizeExceededException ex) {
+        // 413 - ficheiro acima de spring.servlet.multipart.max-file-size / max-request-size
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Content too large");
+        response.put("message", "Upload exceeds the maximum size of " + ex.getMaxUploadSize() + " bytes");
+
+        return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex) {
         // 400 - Erros de validação
@@ -0,0 +1,18 @@
+package natixis.crud_project.transfer.exceptions;
+
+/**
+ * The client's If-Match version no longer matches the stored transaction (HTTP 412).
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    private final Long currentVersion;
+
+    public PreconditionFailedException(String message, Long currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,60 @@
+package natixis.crud_project.transfer.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A transaction moved out of the hot table by the archiver. Keeps the original id, so lookups by id
+ * fall back here; the executor bookkeeping (claimedAt, attempts) is dropped.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "transactions_archive", indexes = {
+        // partição mensal (yyyyMM de scheduledDate): limpeza e extração de um mês por intervalo
+        @Index(name = "idx_transactions_archive_month", columnList = "partitionMonth"),
+        @Index(name = "idx_transactions_archive_origin_date", columnList = "originAccount, scheduledDate")
+})
+public class ArchivedTransaction {
+
+    // o id da tabela quente, sem gerador
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private int partitionMonth;
+
+    private String originAccount;
+
+    private String destinationAccount;
+
+    @Column(nullable = false, scale = 2, precision = 19)
+    private BigDecimal amount;
+
+    private LocalDate scheduledDate;
+
+    @Column(scale = 2, precision = 19)
+    private BigDecimal fee;
+
+    @Column(length = 64)
+    private String feeScheduleVersion;
+
+    private LocalDateTime createdAt;
+
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TransactionStatus status;
+
+    private LocalDateTime executedAt;
+
+    @Column(length = 255)
+    private String lastError;
+
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,7 @@
+package natixis.crud_project.transfer.models;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,71 @@
+package natixis.crud_project.transfer.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key of a create request, a hash of that request and the transaction it produced,
+ * as it was returned then. The unique index is what stops two concurrent retries from both inserting.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "ux_idempotency_keys_key", columnList = "idempotencyKey", unique = true),
+        // limpeza dos registos expirados
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "createdAt")
+})
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_keys_seq")
+    @SequenceGenerator(name = "idempotency_keys_seq", sequenceName = "idempotency_keys_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 128)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    // SHA-256 do pedido: a mesma chave com outro pedido é recusada
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    // createdAt da transação criada; serve também para a limpeza por TTL
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // resposta original: o replay não depende da linha atual, que pode ter sido alterada ou apagada
+    private String originAccount;
+    private String destinationAccount;
+
+    @Column(scale = 2, precision = 19)
+    private BigDecimal amount;
+
+    private LocalDate scheduledDate;
+
+    @Column(scale = 2, precision = 19)
+    private BigDecimal fee;
+
+    @Column(length = 64)
+    private String feeScheduleVersion;
+
+    public IdempotencyRecord(String idempotencyKey, String requestHash, Transaction created) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.transactionId = created.getId();
+        this.createdAt = created.getCreatedAt();
+        this.originAccount = created.getOriginAccount();
+        this.destinationAccount = created.getDestinationAccount();
+        this.amount = created.getAmount();
+        this.scheduledDate = created.getScheduledDate();
+        this.fee = created.getFee();
+        this.feeScheduleVersion = created.getFeeScheduleVersion();
+    }
+}
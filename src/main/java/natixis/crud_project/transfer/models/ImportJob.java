@@ -0,0 +1,46 @@
+package natixis.crud_project.transfer.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A CSV import and its checkpoint. The checkpoint is saved in the same database transaction
+ * as the chunk it covers, so resuming from it never skips or repeats a row.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_jobs_seq")
+    @SequenceGenerator(name = "import_jobs_seq", sequenceName = "import_jobs_seq", allocationSize = 1)
+    private Long id;
+
+    private String fileName;
+
+    // cópia do ficheiro recebido em transfer.import.directory
+    @Column(length = 1024)
+    private String storedPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportJobStatus status = ImportJobStatus.RUNNING;
+
+    // checkpoint: próximo byte a ler, linhas já lidas e tamanho do relatório de rejeições
+    private long nextOffset;
+    private long linesRead;
+    private long rejectsOffset;
+
+    private long imported;
+    private long rejected;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Column(length = 255)
+    private String lastError;
+}
@@ -0,0 +1,11 @@
+package natixis.crud_project.transfer.models;
+
+/**
+ * RUNNING -> COMPLETED | FAILED. A FAILED job (or a RUNNING one left behind by a restart)
+ * resumes from its last checkpoint.
+ */
+public enum ImportJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -3,6 +3,7 @@ package natixis.crud_project.transfer.models;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -10,11 +11,22 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "transactions")
+// o UPDATE gerado pelo dirty checking (ex.: claim do executor) só inclui as colunas alteradas
+@DynamicUpdate
+@Table(name = "transactions", indexes = {
+        // extratos por conta e intervalo de datas (a coluna da conta também serve pesquisas só por conta)
+        @Index(name = "idx_transactions_origin_date", columnList = "originAccount, scheduledDate"),
+        @Index(name = "idx_transactions_destination_date", columnList = "destinationAccount, scheduledDate"),
+        @Index(name = "idx_transactions_scheduled_date", columnList = "scheduledDate"),
+        // claim das transações devidas pelo executor
+        @Index(name = "idx_transactions_status_date", columnList = "status, scheduledDate")
+})
 public class Transaction {
 
+    // Sequence com pooled optimizer: o IDENTITY impede o Hibernate de agrupar inserts em batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     private String originAccount;
@@ -28,5 +40,30 @@ public class Transaction {
     @Column(scale = 2, precision = 19)
     private BigDecimal fee;
 
+    // versão da tabela de taxas que calculou o fee
+    @Column(length = 64)
+    private String feeScheduleVersion;
+
     private LocalDateTime createdAt;
+
+    // optimistic locking: exposto como ETag e verificado no If-Match do PUT
+    @Version
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TransactionStatus status = TransactionStatus.SCHEDULED;
+
+    private LocalDateTime executedAt;
+
+    // preenchido quando um nó reclama a transação para execução
+    private LocalDateTime claimedAt;
+
+    private int attempts;
+
+    // depois de uma tentativa falhada, a transação só volta a ser reclamada a partir daqui
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 255)
+    private String lastError;
 }
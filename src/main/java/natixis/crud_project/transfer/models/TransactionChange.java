@@ -0,0 +1,69 @@
+package natixis.crud_project.transfer.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox record of one create, update or delete, written in the same database transaction as the
+ * change itself. Holds the transaction as it was after the change (before it, for a delete).
+ *
+ * position is null until the relay publishes the record; it is then the cursor of the change feed.
+ * It is assigned by the relay in publish order, not by the sequence, because ids are taken before
+ * commit and concurrent writers can commit them out of order.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "transaction_changes", indexes = {
+        // cursor do feed; as linhas por publicar (position a null) também saem deste índice
+        @Index(name = "ux_transaction_changes_position", columnList = "position", unique = true),
+        // limpeza dos registos publicados
+        @Index(name = "idx_transaction_changes_changed_at", columnList = "changedAt")
+})
+public class TransactionChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_changes_seq")
+    @SequenceGenerator(name = "transaction_changes_seq", sequenceName = "transaction_changes_seq", allocationSize = 50)
+    private Long id;
+
+    private Long position;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeType type;
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    private String originAccount;
+    private String destinationAccount;
+
+    @Column(scale = 2, precision = 19)
+    private BigDecimal amount;
+
+    private LocalDate scheduledDate;
+
+    @Column(scale = 2, precision = 19)
+    private BigDecimal fee;
+
+    @Column(length = 64)
+    private String feeScheduleVersion;
+
+    private LocalDateTime createdAt;
+
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private TransactionStatus status;
+
+    private LocalDateTime executedAt;
+}
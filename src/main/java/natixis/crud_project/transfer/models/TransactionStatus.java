@@ -0,0 +1,13 @@
+package natixis.crud_project.transfer.models;
+
+/**
+ * Lifecycle of a scheduled transfer:
+ * SCHEDULED -> PROCESSING (claimed by an executor node) -> EXECUTED | FAILED.
+ * A failed attempt goes back to SCHEDULED until the retry limit is reached.
+ */
+public enum TransactionStatus {
+    SCHEDULED,
+    PROCESSING,
+    EXECUTED,
+    FAILED
+}
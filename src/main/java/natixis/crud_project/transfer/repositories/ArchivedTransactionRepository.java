@@ -0,0 +1,33 @@
+package natixis.crud_project.transfer.repositories;
+
+import natixis.crud_project.transfer.models.ArchivedTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+
+    /**
+     * Copies the given rows of the hot table in one INSERT ... SELECT, tagging each with its month.
+     */
+    @Transactional
+    @Modifying
+    @Query("insert into ArchivedTransaction (id, partitionMonth, originAccount, destinationAccount, amount, "
+            + "scheduledDate, fee, feeScheduleVersion, createdAt, version, status, executedAt, lastError, archivedAt) "
+            + "select t.id, year(t.scheduledDate) * 100 + month(t.scheduledDate), t.originAccount, "
+            + "t.destinationAccount, t.amount, t.scheduledDate, t.fee, t.feeScheduleVersion, t.createdAt, "
+            + "t.version, t.status, t.executedAt, t.lastError, :archivedAt "
+            + "from Transaction t where t.id in :ids")
+    int copyFromTransactions(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // idx_transactions_archive_month
+    @Transactional
+    @Modifying
+    @Query("delete from ArchivedTransaction a where a.partitionMonth < :month")
+    int deleteMonthsBefore(@Param("month") int month);
+}
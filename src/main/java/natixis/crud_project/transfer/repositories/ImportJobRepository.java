@@ -0,0 +1,12 @@
+package natixis.crud_project.transfer.repositories;
+
+import natixis.crud_project.transfer.models.ImportJob;
+import natixis.crud_project.transfer.models.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    List<ImportJob> findByStatus(ImportJobStatus status);
+}
@@ -0,0 +1,41 @@
+package natixis.crud_project.transfer.repositories;
+
+import jakarta.persistence.LockModeType;
+import natixis.crud_project.transfer.models.TransactionChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransactionChangeRepository extends JpaRepository<TransactionChange, Long>, TransactionChangeRepositoryCustom {
+
+    // ux_transaction_changes_position
+    List<TransactionChange> findByPositionGreaterThanOrderByPositionAsc(Long position, Limit limit);
+
+    /**
+     * Records not yet published, oldest first, locked FOR UPDATE. No SKIP LOCKED: a second relay
+     * waits instead of publishing later records first. Must run inside the relay transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from TransactionChange c where c.position is null order by c.id")
+    List<TransactionChange> findUnpublishedForUpdate(Limit limit);
+
+    @Query("select max(c.position) from TransactionChange c")
+    Long findMaxPosition();
+
+    /**
+     * Deletes published records older than the cutoff. The highest position always stays, so the
+     * relay keeps numbering from it.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from TransactionChange c where c.position is not null and c.changedAt < :cutoff "
+            + "and c.position < (select max(m.position) from TransactionChange m)")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
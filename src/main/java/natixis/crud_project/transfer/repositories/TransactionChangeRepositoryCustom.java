@@ -0,0 +1,14 @@
+package natixis.crud_project.transfer.repositories;
+
+import natixis.crud_project.transfer.models.TransactionChange;
+
+import java.util.List;
+
+public interface TransactionChangeRepositoryCustom {
+
+    /**
+     * Persists outbox records with JDBC batching, flushing and clearing the persistence context every
+     * {@link TransactionRepositoryCustom#BATCH_SIZE} rows, like {@link TransactionRepositoryCustom#insertAll}.
+     */
+    void insertAll(List<TransactionChange> changes);
+}
@@ -0,0 +1,29 @@
+package natixis.crud_project.transfer.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import natixis.crud_project.transfer.models.TransactionChange;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+class TransactionChangeRepositoryImpl implements TransactionChangeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @Transactional
+    public void insertAll(List<TransactionChange> changes) {
+        for (int i = 0; i < changes.size(); i++) {
+            em.persist(changes.get(i));
+
+            if ((i + 1) % TransactionRepositoryCustom.BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+}
@@ -0,0 +1,71 @@
+package natixis.crud_project.transfer.repositories;
+
+import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC reads for bulk extracts: no entities, no persistence context.
+ */
+@Repository
+public class TransactionExportRepository {
+
+    // linhas pedidas ao driver de cada vez; a memória usada não depende do tamanho do extrato
+    static final int FETCH_SIZE = 1000;
+
+    private static final String EXPORT_SQL = "select id, origin_account, destination_account, amount, scheduled_date, "
+            + "fee, fee_schedule_version, created_at, version, status, executed_at "
+            + "from transactions where scheduled_date between ? and ? "
+            + "order by scheduled_date, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reads every transaction scheduled between from and to (inclusive) through a forward-only,
+     * read-only cursor, ordered by scheduledDate then id.
+     *
+     * The consumer always receives the same {@link TransactionResponse} instance, refilled for
+     * each row; it must not keep a reference to it.
+     */
+    @Transactional(readOnly = true)
+    public void forEachScheduledBetween(LocalDate from, LocalDate to, Consumer<TransactionResponse> consumer) {
+        TransactionResponse row = new TransactionResponse();
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setObject(1, from);
+            ps.setObject(2, to);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            row.setId(rs.getLong("id"));
+            row.setOriginAccount(rs.getString("origin_account"));
+            row.setDestinationAccount(rs.getString("destination_account"));
+            row.setAmount(rs.getBigDecimal("amount"));
+            row.setScheduledDate(rs.getObject("scheduled_date", LocalDate.class));
+            row.setFee(rs.getBigDecimal("fee"));
+            row.setFeeScheduleVersion(rs.getString("fee_schedule_version"));
+            row.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+            row.setVersion(rs.getObject("version", Long.class));
+            String status = rs.getString("status");
+            row.setStatus(status == null ? null : TransactionStatus.valueOf(status));
+            row.setExecutedAt(rs.getObject("executed_at", LocalDateTime.class));
+
+            consumer.accept(row);
+        });
+    }
+}
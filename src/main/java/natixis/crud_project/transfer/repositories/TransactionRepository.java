@@ -1,8 +1,172 @@
 package natixis.crud_project.transfer.repositories;
 
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import natixis.crud_project.transfer.dto.AccountDayTotal;
+import natixis.crud_project.transfer.dto.TransactionResponse;
 import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
+
+    // projeção para TransactionResponse: leitura só de colunas, sem entidades geridas no contexto de persistência
+    String RESPONSE_PROJECTION = "new natixis.crud_project.transfer.dto.TransactionResponse("
+            + "t.id, t.originAccount, t.destinationAccount, t.amount, t.scheduledDate, t.fee, "
+            + "t.feeScheduleVersion, t.createdAt, t.version, t.status, t.executedAt)";
+
+    /**
+     * Outgoing side of a statement page: rows after the (afterDate, afterId) keyset cursor, up to to.
+     * The date range is the idx_transactions_origin_date scan; the id only filters rows of afterDate.
+     */
+    @Query("select " + RESPONSE_PROJECTION + " from Transaction t where t.originAccount = :account "
+            + "and t.scheduledDate >= :afterDate and t.scheduledDate <= :to "
+            + "and (t.scheduledDate > :afterDate or t.id > :afterId) "
+            + "order by t.scheduledDate, t.id")
+    List<TransactionResponse> findOutgoingStatement(@Param("account") String account,
+                                                    @Param("afterDate") LocalDate afterDate,
+                                                    @Param("afterId") Long afterId,
+                                                    @Param("to") LocalDate to,
+                                                    Limit limit);
+
+    /**
+     * Incoming side of a statement page, on idx_transactions_destination_date.
+     */
+    @Query("select " + RESPONSE_PROJECTION + " from Transaction t where t.destinationAccount = :account "
+            + "and t.scheduledDate >= :afterDate and t.scheduledDate <= :to "
+            + "and (t.scheduledDate > :afterDate or t.id > :afterId) "
+            + "order by t.scheduledDate, t.id")
+    List<TransactionResponse> findIncomingStatement(@Param("account") String account,
+                                                    @Param("afterDate") LocalDate afterDate,
+                                                    @Param("afterId") Long afterId,
+                                                    @Param("to") LocalDate to,
+                                                    Limit limit);
+
+    // idx_transactions_scheduled_date, keyset em id
+    List<Transaction> findByScheduledDateAndIdGreaterThanOrderByIdAsc(LocalDate scheduledDate, Long afterId, Limit limit);
+
+    /**
+     * Outgoing totals per account and scheduled date, used to rebuild the exposure index.
+     */
+    @Query("select new natixis.crud_project.transfer.dto.AccountDayTotal("
+            + "t.originAccount, t.scheduledDate, count(t), sum(t.amount), sum(t.fee)) "
+            + "from Transaction t "
+            + "where t.status <> natixis.crud_project.transfer.models.TransactionStatus.FAILED "
+            + "group by t.originAccount, t.scheduledDate")
+    List<AccountDayTotal> sumOutgoingByAccountAndDate();
+
+    /**
+     * Due transactions locked FOR UPDATE SKIP LOCKED (lock timeout -2), so concurrent
+     * executor nodes each get a disjoint chunk. A row whose last attempt failed waits until its
+     * nextAttemptAt. Must run inside the claiming transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select t from Transaction t where t.status = :status and t.scheduledDate <= :date "
+            + "and (t.nextAttemptAt is null or t.nextAttemptAt <= :now) order by t.id")
+    List<Transaction> findDueForUpdate(@Param("status") TransactionStatus status,
+                                       @Param("date") LocalDate date,
+                                       @Param("now") LocalDateTime now,
+                                       Limit limit);
+
+    /**
+     * Replaces the editable columns of a scheduled transaction in one statement, guarded on
+     * version and status. Returns 0 when the row is gone, was modified, or is no longer SCHEDULED.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Transaction t set t.originAccount = :originAccount, t.destinationAccount = :destinationAccount, "
+            + "t.amount = :amount, t.scheduledDate = :scheduledDate, t.fee = :fee, "
+            + "t.feeScheduleVersion = :feeScheduleVersion, t.version = t.version + 1 "
+            + "where t.id = :id and t.version = :version "
+            + "and t.status = natixis.crud_project.transfer.models.TransactionStatus.SCHEDULED")
+    int updateScheduled(@Param("id") Long id,
+                        @Param("version") Long version,
+                        @Param("originAccount") String originAccount,
+                        @Param("destinationAccount") String destinationAccount,
+                        @Param("amount") BigDecimal amount,
+                        @Param("scheduledDate") LocalDate scheduledDate,
+                        @Param("fee") BigDecimal fee,
+                        @Param("feeScheduleVersion") String feeScheduleVersion);
+
+    // um único DELETE, sem o findById que o deleteById faz antes de remover; só linhas ainda SCHEDULED
+    @Transactional
+    @Modifying
+    @Query("delete from Transaction t where t.id = :id and t.version = :version "
+            + "and t.status = natixis.crud_project.transfer.models.TransactionStatus.SCHEDULED")
+    int removeByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+
+    /**
+     * Marks a claimed chunk as executed. The status guard makes a repeated call a no-op.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Transaction t set t.status = natixis.crud_project.transfer.models.TransactionStatus.EXECUTED, "
+            + "t.executedAt = :executedAt, t.lastError = null, t.version = t.version + 1 "
+            + "where t.id in :ids and t.status = natixis.crud_project.transfer.models.TransactionStatus.PROCESSING")
+    int markExecuted(@Param("ids") Collection<Long> ids, @Param("executedAt") LocalDateTime executedAt);
+
+    /**
+     * Records a failed attempt: back to SCHEDULED with the time of the next attempt, or FAILED
+     * (nextAttemptAt null) once the attempts are used up.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Transaction t set t.status = :status, t.lastError = :error, t.nextAttemptAt = :nextAttemptAt, "
+            + "t.version = t.version + 1 "
+            + "where t.id = :id and t.status = natixis.crud_project.transfer.models.TransactionStatus.PROCESSING")
+    int markAttemptFailed(@Param("id") Long id,
+                          @Param("status") TransactionStatus status,
+                          @Param("error") String error,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Ids of the rows claimed before the cutoff by a node that stopped before finishing them.
+     */
+    @Query("select t.id from Transaction t "
+            + "where t.status = natixis.crud_project.transfer.models.TransactionStatus.PROCESSING "
+            + "and t.claimedAt < :cutoff")
+    List<Long> findExpiredClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Returns expired claims to SCHEDULED. The guard repeats the expiry check, so a row executed
+     * since {@link #findExpiredClaims} was read is left alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Transaction t set t.status = natixis.crud_project.transfer.models.TransactionStatus.SCHEDULED, "
+            + "t.version = t.version + 1 "
+            + "where t.id in :ids and t.status = natixis.crud_project.transfer.models.TransactionStatus.PROCESSING "
+            + "and t.claimedAt < :cutoff")
+    int releaseExpiredClaims(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Rows in one of the given statuses scheduled before the cutoff, locked FOR UPDATE SKIP LOCKED
+     * for the archiver. Must run inside the archiving transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select t from Transaction t where t.status in :statuses and t.scheduledDate < :cutoff order by t.id")
+    List<Transaction> findArchivableForUpdate(@Param("statuses") Collection<TransactionStatus> statuses,
+                                              @Param("cutoff") LocalDate cutoff,
+                                              Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Transaction t where t.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,38 @@
+package natixis.crud_project.transfer.repositories;
+
+import natixis.crud_project.transfer.dto.TransactionFilter;
+import natixis.crud_project.transfer.models.Transaction;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface TransactionRepositoryCustom {
+
+    // deve acompanhar spring.jpa.properties.hibernate.jdbc.batch_size
+    int BATCH_SIZE = 50;
+
+    /**
+     * Keyset page ordered by id: returns at most {@code limit} rows with id > afterId.
+     */
+    List<Transaction> findPage(TransactionFilter filter, Long afterId, int limit);
+
+    /**
+     * Walks every matching row through a forward-only cursor, ordered by id.
+     * Each entity is detached after the consumer sees it, so the persistence context never grows.
+     */
+    void forEach(TransactionFilter filter, Consumer<Transaction> consumer);
+
+    /**
+     * Persists new transactions using JDBC batching, flushing and clearing the
+     * persistence context every {@link #BATCH_SIZE} rows so large batches keep a bounded footprint.
+     */
+    void insertAll(List<Transaction> transactions);
+
+    /**
+     * Dynamic single-statement update of a scheduled transaction: only the non-null fields of
+     * {@code changes} are written (fee and feeScheduleVersion together), guarded on version and status.
+     *
+     * @return rows updated, 0 when the row is gone, was modified, or is no longer SCHEDULED
+     */
+    int patchScheduled(Long id, Long version, Transaction changes);
+}
@@ -0,0 +1,141 @@
+package natixis.crud_project.transfer.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import natixis.crud_project.transfer.dto.TransactionFilter;
+import natixis.crud_project.transfer.models.Transaction;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> findPage(TransactionFilter filter, Long afterId, int limit) {
+        return buildQuery(filter, afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(TransactionFilter filter, Consumer<Transaction> consumer) {
+        TypedQuery<Transaction> query = buildQuery(filter, null)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        try (Stream<Transaction> rows = query.getResultStream()) {
+            rows.forEach(t -> {
+                consumer.accept(t);
+                em.detach(t);
+            });
+        }
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<Transaction> transactions) {
+        for (int i = 0; i < transactions.size(); i++) {
+            em.persist(transactions.get(i));
+
+            if ((i + 1) % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Override
+    @Transactional
+    public int patchScheduled(Long id, Long version, Transaction changes) {
+        StringBuilder jpql = new StringBuilder("update Transaction t set t.version = t.version + 1");
+
+        if (changes.getOriginAccount() != null) {
+            jpql.append(", t.originAccount = :originAccount");
+        }
+        if (changes.getDestinationAccount() != null) {
+            jpql.append(", t.destinationAccount = :destinationAccount");
+        }
+        if (changes.getAmount() != null) {
+            jpql.append(", t.amount = :amount");
+        }
+        if (changes.getScheduledDate() != null) {
+            jpql.append(", t.scheduledDate = :scheduledDate");
+        }
+        if (changes.getFee() != null) {
+            jpql.append(", t.fee = :fee, t.feeScheduleVersion = :feeScheduleVersion");
+        }
+        jpql.append(" where t.id = :id and t.version = :version")
+                .append(" and t.status = natixis.crud_project.transfer.models.TransactionStatus.SCHEDULED");
+
+        Query query = em.createQuery(jpql.toString())
+                .setParameter("id", id)
+                .setParameter("version", version);
+
+        if (changes.getOriginAccount() != null) {
+            query.setParameter("originAccount", changes.getOriginAccount());
+        }
+        if (changes.getDestinationAccount() != null) {
+            query.setParameter("destinationAccount", changes.getDestinationAccount());
+        }
+        if (changes.getAmount() != null) {
+            query.setParameter("amount", changes.getAmount());
+        }
+        if (changes.getScheduledDate() != null) {
+            query.setParameter("scheduledDate", changes.getScheduledDate());
+        }
+        if (changes.getFee() != null) {
+            query.setParameter("fee", changes.getFee());
+            query.setParameter("feeScheduleVersion", changes.getFeeScheduleVersion());
+        }
+        return query.executeUpdate();
+    }
+
+    // Só adiciona os predicados usados, para o otimizador poder usar os índices
+    private TypedQuery<Transaction> buildQuery(TransactionFilter filter, Long afterId) {
+        StringBuilder jpql = new StringBuilder("select t from Transaction t where 1 = 1");
+
+        if (afterId != null) {
+            jpql.append(" and t.id > :afterId");
+        }
+        if (filter.getAccount() != null) {
+            jpql.append(" and (t.originAccount = :account or t.destinationAccount = :account)");
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" and t.scheduledDate >= :from");
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" and t.scheduledDate <= :to");
+        }
+        jpql.append(" order by t.id");
+
+        TypedQuery<Transaction> query = em.createQuery(jpql.toString(), Transaction.class);
+
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        if (filter.getAccount() != null) {
+            query.setParameter("account", filter.getAccount());
+        }
+        if (filter.getFrom() != null) {
+            query.setParameter("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            query.setParameter("to", filter.getTo());
+        }
+        return query;
+    }
+}
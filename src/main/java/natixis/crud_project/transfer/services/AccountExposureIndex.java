@@ -0,0 +1,132 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.dto.AccountDayTotal;
+import natixis.crud_project.transfer.dto.AccountExposure;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import natixis.crud_project.transfer.utils.Cents;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory totals of outgoing transfers per origin account and scheduled date.
+ *
+ * Holds committed totals only: {@link AccountTotals} applies each delta once its transaction commits.
+ * A summary sums the date buckets in the requested range, so its cost depends on the number of
+ * dates, not of rows. FAILED transfers are not counted.
+ */
+class AccountExposureIndex {
+
+    // valores em cêntimos, como no fast path do FeeSchedule
+    static final class Bucket {
+        final LongAdder count = new LongAdder();
+        final LongAdder amountCents = new LongAdder();
+        final LongAdder feeCents = new LongAdder();
+
+        void add(long sign, long amount, long fee) {
+            count.add(sign);
+            amountCents.add(sign * amount);
+            feeCents.add(sign * fee);
+        }
+    }
+
+    private volatile Map<String, ConcurrentNavigableMap<LocalDate, Bucket>> accounts = new ConcurrentHashMap<>();
+
+    // deltas em paralelo (read lock); o rebuild troca o mapa em exclusivo para não perder deltas
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    /**
+     * Replaces the index with the stored totals. The query runs under the rebuild lock, so deltas
+     * committed meanwhile wait and land on the new map. Returns the totals read.
+     */
+    List<AccountDayTotal> load(Supplier<List<AccountDayTotal>> stored) {
+        rebuildLock.writeLock().lock();
+        try {
+            Map<String, ConcurrentNavigableMap<LocalDate, Bucket>> rebuilt = new ConcurrentHashMap<>();
+            List<AccountDayTotal> totals = stored.get();
+            for (AccountDayTotal total : totals) {
+                Bucket bucket = bucket(rebuilt, total.getAccount(), total.getScheduledDate());
+                bucket.count.add(total.getCount());
+                bucket.amountCents.add(Cents.of(total.getAmount()));
+                bucket.feeCents.add(Cents.of(total.getFees()));
+            }
+            accounts = rebuilt;
+            return totals;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    void added(Transaction t) {
+        apply(t, 1);
+    }
+
+    void removed(Transaction t) {
+        apply(t, -1);
+    }
+
+    void replaced(Transaction before, Transaction after) {
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    /**
+     * Totals of the account's outgoing transfers scheduled between from and to (inclusive).
+     */
+    AccountExposure summary(String account, LocalDate from, LocalDate to) {
+        long count = 0;
+        long amount = 0;
+        long fees = 0;
+        List<AccountDayTotal> days = new ArrayList<>();
+
+        ConcurrentNavigableMap<LocalDate, Bucket> dates = accounts.get(account);
+        if (dates != null) {
+            for (Map.Entry<LocalDate, Bucket> entry : dates.subMap(from, true, to, true).entrySet()) {
+                Bucket bucket = entry.getValue();
+                long dayCount = bucket.count.sum();
+                if (dayCount == 0) {
+                    continue;
+                }
+                long dayAmount = bucket.amountCents.sum();
+                long dayFees = bucket.feeCents.sum();
+                days.add(new AccountDayTotal(account, entry.getKey(), dayCount,
+                        Cents.toAmount(dayAmount), Cents.toAmount(dayFees)));
+                count += dayCount;
+                amount += dayAmount;
+                fees += dayFees;
+            }
+        }
+        return new AccountExposure(account, from, to, count,
+                Cents.toAmount(amount), Cents.toAmount(fees), days);
+    }
+
+    private void apply(Transaction t, long sign) {
+        if (t.getOriginAccount() == null || t.getScheduledDate() == null
+                || t.getStatus() == TransactionStatus.FAILED) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            bucket(accounts, t.getOriginAccount(), t.getScheduledDate())
+                    .add(sign, Cents.of(t.getAmount()), Cents.of(t.getFee()));
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private static Bucket bucket(Map<String, ConcurrentNavigableMap<LocalDate, Bucket>> accounts,
+                                 String account, LocalDate date) {
+        return accounts.computeIfAbsent(account, a -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(date, d -> new Bucket());
+    }
+}
@@ -0,0 +1,146 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.dto.AccountDayTotal;
+import natixis.crud_project.transfer.exceptions.BusinessException;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import natixis.crud_project.transfer.utils.Cents;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Amount held per origin account and scheduled date, used to enforce the daily limit inline.
+ *
+ * Each account/date has its own counter, and a reservation is a compare-and-set on that counter,
+ * so creates for the same account serialize only on it and creates for different accounts never
+ * contend. The ledger is updated before the write; {@link AccountTotals} gives the amount back
+ * when the write does not happen. Loaded from today onwards; past dates are pruned daily.
+ */
+class AccountLedger {
+
+    private final boolean enabled;
+    private final long dailyLimitCents;
+
+    // valores em cêntimos
+    private final ConcurrentMap<String, ConcurrentMap<LocalDate, AtomicLong>> accounts = new ConcurrentHashMap<>();
+
+    AccountLedger(boolean enabled, BigDecimal dailyLimit) {
+        this.enabled = enabled;
+        this.dailyLimitCents = Cents.of(dailyLimit);
+    }
+
+    /**
+     * Replaces the holds with the stored totals from today onwards.
+     */
+    void load(List<AccountDayTotal> totals, LocalDate today) {
+        if (!enabled) {
+            return;
+        }
+        accounts.clear();
+        for (AccountDayTotal total : totals) {
+            if (!total.getScheduledDate().isBefore(today)) {
+                held(total.getAccount(), total.getScheduledDate()).addAndGet(Cents.of(total.getAmount()));
+            }
+        }
+    }
+
+    /**
+     * Holds the amount on the origin account's scheduled date.
+     * Throws BusinessException when that would take the day over the daily limit.
+     */
+    void reserve(Transaction t) {
+        if (!enabled || !counted(t)) {
+            return;
+        }
+        add(t.getOriginAccount(), t.getScheduledDate(), Cents.of(t.getAmount()), true);
+    }
+
+    /**
+     * Gives back the amount held by {@link #reserve(Transaction)}, or by a stored transaction
+     * that was deleted or failed.
+     */
+    void release(Transaction t) {
+        if (!enabled || !counted(t)) {
+            return;
+        }
+        add(t.getOriginAccount(), t.getScheduledDate(), -Cents.of(t.getAmount()), false);
+    }
+
+    /**
+     * Moves the hold from before to after; checked against the limit when after needs more on its day.
+     */
+    void replace(Transaction before, Transaction after) {
+        if (!enabled) {
+            return;
+        }
+        if (counted(before) && counted(after)
+                && before.getOriginAccount().equals(after.getOriginAccount())
+                && before.getScheduledDate().equals(after.getScheduledDate())) {
+            long delta = Cents.of(after.getAmount()) - Cents.of(before.getAmount());
+            add(after.getOriginAccount(), after.getScheduledDate(), delta, delta > 0);
+            return;
+        }
+        reserve(after);
+        release(before);
+    }
+
+    /**
+     * Undoes {@link #replace(Transaction, Transaction)} when the write did not happen.
+     */
+    void revert(Transaction before, Transaction after) {
+        if (!enabled) {
+            return;
+        }
+        release(after);
+        if (counted(before)) {
+            add(before.getOriginAccount(), before.getScheduledDate(), Cents.of(before.getAmount()), false);
+        }
+    }
+
+    /**
+     * Amount held on the account's scheduled date.
+     */
+    BigDecimal held(String account, LocalDate date) {
+        Map<LocalDate, AtomicLong> dates = accounts.get(account);
+        AtomicLong held = dates == null ? null : dates.get(date);
+        return Cents.toAmount(held == null ? 0L : held.get());
+    }
+
+    // dias passados já não recebem transferências novas
+    void prunePastDays(LocalDate today) {
+        // os mapas por conta ficam, mesmo vazios: removê-los podia perder uma reserva concorrente
+        accounts.values().forEach(dates -> dates.keySet().removeIf(date -> date.isBefore(today)));
+    }
+
+    private void add(String account, LocalDate date, long cents, boolean checked) {
+        AtomicLong held = held(account, date);
+        if (!checked) {
+            held.addAndGet(cents);
+            return;
+        }
+        long current;
+        do {
+            current = held.get();
+            if (current + cents > dailyLimitCents) {
+                throw new BusinessException("Daily limit of " + Cents.toAmount(dailyLimitCents)
+                        + " exceeded for account " + account + " on " + date);
+            }
+        } while (!held.compareAndSet(current, current + cents));
+    }
+
+    private AtomicLong held(String account, LocalDate date) {
+        return accounts.computeIfAbsent(account, a -> new ConcurrentHashMap<>())
+                .computeIfAbsent(date, d -> new AtomicLong());
+    }
+
+    private static boolean counted(Transaction t) {
+        return t.getOriginAccount() != null && t.getScheduledDate() != null && t.getAmount() != null
+                && t.getStatus() != TransactionStatus.FAILED;
+    }
+}
@@ -0,0 +1,150 @@
+package natixis.crud_project.transfer.services;
+
+import jakarta.annotation.PostConstruct;
+import natixis.crud_project.transfer.dto.AccountDayTotal;
+import natixis.crud_project.transfer.dto.AccountExposure;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.repositories.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Outgoing totals per origin account and scheduled date: the daily-limit {@link AccountLedger},
+ * held before each write, and the {@link AccountExposureIndex} of committed transfers.
+ *
+ * Write paths report each write here and this class keeps both in step: holds are given back when
+ * the write does not happen, and inside a database transaction the exposure changes only once it
+ * commits. Both are built from one query at startup and only see writes made through this node,
+ * so they can be rebuilt with {@link #rebuild()} when other nodes write too.
+ */
+@Component
+public class AccountTotals {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountTotals.class);
+
+    private final TransactionRepository repo;
+    private final AccountLedger ledger;
+    private final AccountExposureIndex exposure = new AccountExposureIndex();
+
+    public AccountTotals(TransactionRepository repo,
+                         @Value("${transfer.ledger.enabled:false}") boolean ledgerEnabled,
+                         @Value("${transfer.ledger.daily-limit:50000.00}") BigDecimal dailyLimit) {
+        this.repo = repo;
+        this.ledger = new AccountLedger(ledgerEnabled, dailyLimit);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<AccountDayTotal> totals = exposure.load(repo::sumOutgoingByAccountAndDate);
+        ledger.load(totals, LocalDate.now());
+        log.info("Account totals built with {} account/date buckets", totals.size());
+    }
+
+    /**
+     * Holds the amount on the origin account's scheduled date before the transaction is inserted.
+     * Throws BusinessException when that would take the day over the daily limit.
+     */
+    public void reserve(Transaction t) {
+        ledger.reserve(t);
+    }
+
+    /**
+     * Moves the hold from before to after before an update is written; checked against the limit
+     * when after needs more on its day.
+     */
+    public void reserve(Transaction before, Transaction after) {
+        ledger.replace(before, after);
+    }
+
+    /**
+     * Gives back the hold of a transaction that was not inserted.
+     */
+    public void discard(Transaction t) {
+        ledger.release(t);
+    }
+
+    /**
+     * Undoes {@link #reserve(Transaction, Transaction)} when the update was not written.
+     */
+    public void discard(Transaction before, Transaction after) {
+        ledger.revert(before, after);
+    }
+
+    /**
+     * A reserved transaction was inserted. Inside a database transaction it counts once that commits,
+     * and its hold is given back if it rolls back.
+     */
+    public void created(Transaction t) {
+        afterCompletion(() -> exposure.added(t), () -> ledger.release(t));
+    }
+
+    /**
+     * A reserved update was written.
+     */
+    public void replaced(Transaction before, Transaction after) {
+        afterCompletion(() -> exposure.replaced(before, after), () -> ledger.revert(before, after));
+    }
+
+    /**
+     * A stored transaction was deleted or failed: it no longer counts nor holds its amount.
+     */
+    public void removed(Transaction t) {
+        afterCompletion(() -> {
+            exposure.removed(t);
+            ledger.release(t);
+        }, null);
+    }
+
+    /**
+     * A finished transaction moved to the archive. Its day is past, so only the exposure changes.
+     */
+    public void archived(Transaction t) {
+        afterCompletion(() -> exposure.removed(t), null);
+    }
+
+    /**
+     * Totals of the account's outgoing transfers scheduled between from and to (inclusive).
+     */
+    public AccountExposure summary(String account, LocalDate from, LocalDate to) {
+        return exposure.summary(account, from, to);
+    }
+
+    /**
+     * Amount held on the account's scheduled date.
+     */
+    public BigDecimal held(String account, LocalDate date) {
+        return ledger.held(account, date);
+    }
+
+    @Scheduled(cron = "${transfer.ledger.prune-cron:0 5 0 * * *}")
+    public void prunePastDays() {
+        ledger.prunePastDays(LocalDate.now());
+    }
+
+    // dentro de uma transação espera pelo fim dela; fora, a escrita já fez commit
+    private static void afterCompletion(Runnable committed, Runnable rolledBack) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    committed.run();
+                } else if (rolledBack != null) {
+                    rolledBack.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.models.TransactionChange;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox relay (a file by default; a message broker producer in production).
+ *
+ * publish is called with the records in position order, before the relay commits their positions,
+ * and must return only once they are durable at the destination. Throwing leaves the records
+ * unpublished and the same batch is offered again, so delivery is at least once: consumers
+ * drop duplicates by position.
+ */
+public interface ChangeSink {
+
+    void publish(List<TransactionChange> changes);
+}
@@ -0,0 +1,135 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.dto.FeeQuote;
+import natixis.crud_project.transfer.dto.FeeQuoteBatchItem;
+import natixis.crud_project.transfer.dto.FeeQuoteBatchResponse;
+import natixis.crud_project.transfer.dto.TransactionRequest;
+import natixis.crud_project.transfer.exceptions.BusinessException;
+import natixis.crud_project.transfer.utils.FeeResult;
+import natixis.crud_project.transfer.utils.FeeSchedule;
+import natixis.crud_project.transfer.utils.TaxCalculator;
+import natixis.crud_project.transfer.utils.TransactionValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Prices transfer requests without storing anything.
+ *
+ * The fee rule depends only on the amount band and on the number of days until the scheduled date,
+ * so the rules of every band are resolved once per day count and kept for the rest of the calendar
+ * day. The memo is dropped when the date changes or a new fee schedule is installed; a quote is then
+ * one amount-band search and the fee arithmetic.
+ */
+@Service
+public class FeeQuoteService {
+
+    // rules por número de dias, válidas para um "hoje" e uma tabela de taxas
+    private record Memo(LocalDate today, FeeSchedule schedule, AtomicReferenceArray<FeeSchedule.DayRates> rates) {
+    }
+
+    private final int maxDays;
+    private volatile Memo memo;
+
+    public FeeQuoteService(@Value("${transfer.quote.max-days:3660}") int maxDays) {
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Throws BusinessException when the request is invalid and FeeRejectedException when no fee rule applies.
+     */
+    public FeeQuote quote(TransactionRequest request) {
+        List<String> errors = TransactionValidator.validate(request);
+        if (!errors.isEmpty()) {
+            throw new BusinessException(String.join("; ", errors));
+        }
+
+        Memo day = memo(LocalDate.now());
+        FeeResult fee = price(day, request.getAmount(), request.getScheduledDate());
+        if (fee.isRejected()) {
+            throw fee.toException();
+        }
+        return toQuote(request, fee, day.schedule());
+    }
+
+    /**
+     * One result per item; an invalid or rejected item does not fail the others.
+     */
+    public FeeQuoteBatchResponse quoteBatch(List<TransactionRequest> requests) {
+        if (requests.size() > TransactionService.MAX_BATCH_SIZE) {
+            throw new BusinessException("Batch cannot contain more than " + TransactionService.MAX_BATCH_SIZE + " transactions");
+        }
+
+        // o mesmo "hoje" e a mesma tabela para todo o batch
+        Memo day = memo(LocalDate.now());
+        List<FeeQuoteBatchItem> results = new ArrayList<>(requests.size());
+        int quoted = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            List<String> errors = TransactionValidator.validate(request);
+            if (!errors.isEmpty()) {
+                results.add(new FeeQuoteBatchItem(i, FeeQuoteBatchItem.REJECTED, null, String.join("; ", errors)));
+                continue;
+            }
+
+            FeeResult fee = price(day, request.getAmount(), request.getScheduledDate());
+            if (fee.isRejected()) {
+                results.add(new FeeQuoteBatchItem(i, FeeQuoteBatchItem.REJECTED, null, fee.getMessage()));
+                continue;
+            }
+            results.add(new FeeQuoteBatchItem(i, FeeQuoteBatchItem.QUOTED, toQuote(request, fee, day.schedule()), null));
+            quoted++;
+        }
+
+        return new FeeQuoteBatchResponse(quoted, requests.size() - quoted, results);
+    }
+
+    /**
+     * Same result as {@link FeeSchedule#price(BigDecimal, LocalDate, LocalDate)} with the current schedule.
+     */
+    FeeResult price(BigDecimal amount, LocalDate scheduledDate, LocalDate today) {
+        return price(memo(today), amount, scheduledDate);
+    }
+
+    private FeeResult price(Memo day, BigDecimal amount, LocalDate scheduledDate) {
+        long days = scheduledDate.toEpochDay() - day.today().toEpochDay();
+        if (days < 0 || days > maxDays) {
+            // datas passadas ou muito distantes: sem memo, para o array ficar limitado
+            return day.schedule().price(amount, days);
+        }
+
+        int slot = (int) days;
+        FeeSchedule.DayRates rates = day.rates().get(slot);
+        if (rates == null) {
+            // corrida benigna: duas threads podem resolver o mesmo dia, o resultado é igual
+            rates = day.schedule().forDays(days);
+            day.rates().set(slot, rates);
+        }
+        return rates.price(amount);
+    }
+
+    // troca o memo à meia-noite ou quando é instalada outra tabela de taxas
+    private Memo memo(LocalDate today) {
+        Memo current = memo;
+        FeeSchedule schedule = TaxCalculator.currentSchedule();
+        if (current != null && current.today().equals(today) && current.schedule() == schedule) {
+            return current;
+        }
+        Memo fresh = new Memo(today, schedule, new AtomicReferenceArray<>(maxDays + 1));
+        if (current == null || !current.today().isAfter(today)) {
+            memo = fresh;
+        }
+        return fresh;
+    }
+
+    private static FeeQuote toQuote(TransactionRequest request, FeeResult fee, FeeSchedule schedule) {
+        return new FeeQuote(request.getAmount(), request.getScheduledDate(), fee.getFee(), fee.getTier(),
+                schedule.getVersion());
+    }
+}
@@ -0,0 +1,145 @@
+package natixis.crud_project.transfer.services;
+
+import jakarta.annotation.PostConstruct;
+import natixis.crud_project.transfer.config.FeeScheduleProperties;
+import natixis.crud_project.transfer.utils.FeeSchedule;
+import natixis.crud_project.transfer.utils.TaxCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+/**
+ * Loads the fee table from configuration and installs it in {@link TaxCalculator}.
+ *
+ * Each load compiles a new immutable {@link FeeSchedule} and swaps it in atomically,
+ * so pricing never takes a lock. A schedule that fails to load or compile is rejected
+ * and the previous one stays active.
+ */
+@Service
+public class FeeScheduleService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeeScheduleService.class);
+
+    private final FeeScheduleProperties properties;
+
+    private volatile long lastModified = -1L;
+    private volatile LocalDateTime loadedAt;
+
+    public FeeScheduleService(FeeScheduleProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        // no arranque um erro de configuração deve impedir a aplicação de subir
+        install(load());
+    }
+
+    /**
+     * Re-reads the schedule (from {@code transfer.fees.location} when set) and installs it.
+     */
+    public synchronized FeeSchedule reload() {
+        FeeSchedule schedule = load();
+        install(schedule);
+        return schedule;
+    }
+
+    /**
+     * Polls the external file and reloads when it changed. Failures keep the current schedule.
+     */
+    @Scheduled(fixedDelayString = "${transfer.fees.reload-interval:30s}")
+    public void reloadIfChanged() {
+        if (properties.getLocation() == null) {
+            return;
+        }
+        try {
+            long modified = resource().lastModified();
+            if (modified == lastModified) {
+                return;
+            }
+            // um ficheiro inválido só é reportado uma vez, até voltar a mudar
+            lastModified = modified;
+            reload();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Could not reload fee schedule from {}, keeping version {}",
+                    properties.getLocation(), TaxCalculator.currentSchedule().getVersion(), ex);
+        }
+    }
+
+    public FeeSchedule current() {
+        return TaxCalculator.currentSchedule();
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    private void install(FeeSchedule schedule) {
+        TaxCalculator.install(schedule);
+        loadedAt = LocalDateTime.now();
+        log.info("Fee schedule version {} installed", schedule.getVersion());
+    }
+
+    private FeeSchedule load() {
+        if (properties.getLocation() == null) {
+            return compile(properties);
+        }
+
+        try {
+            Resource resource = resource();
+            long modified = resource.lastModified();
+
+            YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+            yaml.setResources(resource);
+            Properties values = yaml.getObject();
+
+            FeeScheduleProperties fromFile = new Binder(new MapConfigurationPropertySource(values))
+                    .bind("transfer.fees", FeeScheduleProperties.class)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "No transfer.fees section in " + properties.getLocation()));
+
+            FeeSchedule schedule = compile(fromFile);
+            lastModified = modified;
+            return schedule;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not read fee schedule from " + properties.getLocation(), ex);
+        }
+    }
+
+    private Resource resource() {
+        return new DefaultResourceLoader().getResource(properties.getLocation());
+    }
+
+    /**
+     * Compiles bound properties into a schedule. Without bands, the built-in table is used
+     * (under the configured version, if any).
+     */
+    static FeeSchedule compile(FeeScheduleProperties props) {
+        if (props.getBands().isEmpty()) {
+            FeeSchedule builtIn = TaxCalculator.defaultSchedule();
+            return props.getVersion() == null ? builtIn : builtIn.withVersion(props.getVersion());
+        }
+        if (props.getVersion() == null || props.getVersion().isBlank()) {
+            throw new IllegalStateException("transfer.fees.version is required when bands are configured");
+        }
+
+        FeeSchedule.Builder builder = FeeSchedule.builder(props.getVersion());
+        for (FeeScheduleProperties.Band band : props.getBands()) {
+            builder.band(band.getTier(), band.getUpTo(), band.getRejectionMessage());
+            for (FeeScheduleProperties.Rule rule : band.getRules()) {
+                builder.rule(rule.getMinDays(), rule.getMaxDays(), rule.getRate(), rule.getFixedFee());
+            }
+        }
+        return builder.build();
+    }
+}
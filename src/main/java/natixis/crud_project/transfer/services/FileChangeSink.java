@@ -0,0 +1,72 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.models.TransactionChange;
+import natixis.crud_project.transfer.utils.TransactionLineWriter;
+import natixis.crud_project.transfer.utils.TransactionMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Default sink for local use: appends each change as one NDJSON line and forces the file to disk
+ * before returning.
+ */
+public class FileChangeSink implements ChangeSink, Closeable {
+
+    private final Path file;
+    private FileChannel channel;
+
+    public FileChangeSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<TransactionChange> changes) {
+        StringWriter buffer = new StringWriter(changes.size() * 256);
+        TransactionLineWriter lines = new TransactionLineWriter(buffer);
+        try {
+            for (TransactionChange change : changes) {
+                lines.writeNdjson(TransactionMapper.toResponse(change));
+            }
+
+            FileChannel out = channel();
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+            out.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append " + changes.size() + " changes to " + file, ex);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // aberto no primeiro publish, para um arranque sem alterações não criar o ficheiro
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,106 @@
+package natixis.crud_project.transfer.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import natixis.crud_project.transfer.models.IdempotencyRecord;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.repositories.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Maps Idempotency-Key values to the request they came with and the transaction they created.
+ *
+ * Lookups hit a bounded in-memory map first and fall back to the idempotency_keys table,
+ * which is the source of truth across nodes and restarts. Keys are kept for at least the TTL;
+ * older rows are purged on a schedule.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 128;
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final IdempotencyRecordRepository repo;
+    private final Duration ttl;
+    private final Cache<String, IdempotencyRecord> cache;
+
+    public IdempotencyStore(IdempotencyRecordRepository repo,
+                            @Value("${transfer.idempotency.max-size:100000}") long maxSize,
+                            @Value("${transfer.idempotency.ttl:24h}") Duration ttl) {
+        this.repo = repo;
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Record of the request made under this key, if any.
+     */
+    public Optional<IdempotencyRecord> find(String key) {
+        IdempotencyRecord record = cache.getIfPresent(key);
+        if (record != null) {
+            return Optional.of(record);
+        }
+        Optional<IdempotencyRecord> stored = repo.findByIdempotencyKey(key);
+        stored.ifPresent(r -> cache.put(key, r));
+        return stored;
+    }
+
+    /**
+     * Runs {@code create} and records the key in the same database transaction. If another request
+     * recorded the key first, the unique index fails the flush with DataIntegrityViolationException
+     * and the insert made by {@code create} is rolled back with it.
+     */
+    @Transactional
+    public Transaction createOnce(String key, String requestHash, Supplier<Transaction> create) {
+        Transaction saved = create.get();
+        repo.saveAndFlush(new IdempotencyRecord(key, requestHash, saved));
+        return saved;
+    }
+
+    // só depois do commit, para a memória nunca ter uma chave que não está na tabela
+    public void remember(String key, String requestHash, Transaction created) {
+        cache.put(key, new IdempotencyRecord(key, requestHash, created));
+    }
+
+    /**
+     * SHA-256 (hex) of the fields a create request carries. Amounts are compared by value, so 100 and 100.00 match.
+     */
+    public static String requestHash(Transaction t) {
+        String amount = t.getAmount() == null ? "null" : t.getAmount().stripTrailingZeros().toPlainString();
+        String canonical = String.join("\u0000", String.valueOf(t.getOriginAccount()),
+                String.valueOf(t.getDestinationAccount()), amount, String.valueOf(t.getScheduledDate()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            // todas as JVMs têm SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.idempotency.purge-interval:1h}")
+    public void purgeExpired() {
+        int removed = repo.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+}
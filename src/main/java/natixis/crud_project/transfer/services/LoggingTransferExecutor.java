@@ -0,0 +1,20 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.models.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Default executor: there is no payment rail in this service, so execution only logs the transfer.
+ */
+public class LoggingTransferExecutor implements TransferExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingTransferExecutor.class);
+
+    @Override
+    public void execute(Transaction transaction) {
+        log.debug("Executing transfer {}: {} -> {} amount {}",
+                transaction.getId(), transaction.getOriginAccount(),
+                transaction.getDestinationAccount(), transaction.getAmount());
+    }
+}
@@ -0,0 +1,133 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.config.ArchiveProperties;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import natixis.crud_project.transfer.repositories.ArchivedTransactionRepository;
+import natixis.crud_project.transfer.repositories.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves finished transactions (EXECUTED or FAILED) scheduled before the retention window from the
+ * hot table to transactions_archive. SCHEDULED and PROCESSING rows stay, however old: the executor
+ * still has to run them, and archived rows are read-only.
+ *
+ * Each chunk is locked (FOR UPDATE SKIP LOCKED), copied with one INSERT ... SELECT and deleted in the
+ * same database transaction, so a row is always in exactly one of the two tables. The archive is
+ * partitioned by month of scheduledDate (partitionMonth); whole months past keepMonths are dropped.
+ */
+@Service
+@ConditionalOnProperty(prefix = "transfer.archive", name = "enabled", havingValue = "true")
+public class TransactionArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiver.class);
+
+    // só estados terminais; uma transferência por executar nunca sai da tabela quente
+    static final Set<TransactionStatus> ARCHIVABLE = EnumSet.of(TransactionStatus.EXECUTED, TransactionStatus.FAILED);
+
+    private final TransactionRepository repo;
+    private final ArchivedTransactionRepository archive;
+    private final TransactionCache cache;
+    private final AccountTotals totals;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TransactionArchiver(TransactionRepository repo,
+                               ArchivedTransactionRepository archive,
+                               TransactionCache cache,
+                               AccountTotals totals,
+                               TransactionTemplate transactionTemplate,
+                               ArchiveProperties properties) {
+        this.repo = repo;
+        this.archive = archive;
+        this.cache = cache;
+        this.totals = totals;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.archive.interval:1h}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            int moved = archiveBefore(today.minusDays(properties.getRetention().toDays()));
+            int dropped = dropExpiredMonths(today);
+            if (moved > 0 || dropped > 0) {
+                log.info("Archived {} transactions, dropped {} archived rows", moved, dropped);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Moves every executed or failed transaction scheduled before cutoff, chunk by chunk. Returns the number of rows moved.
+     */
+    public int archiveBefore(LocalDate cutoff) {
+        int total = 0;
+        while (true) {
+            List<Transaction> moved = transactionTemplate.execute(status -> moveChunk(cutoff));
+            if (moved == null || moved.isEmpty()) {
+                return total;
+            }
+            for (Transaction t : moved) {
+                cache.invalidate(t.getId());
+            }
+            total += moved.size();
+        }
+    }
+
+    private List<Transaction> moveChunk(LocalDate cutoff) {
+        List<Transaction> rows = repo.findArchivableForUpdate(ARCHIVABLE, cutoff, Limit.of(properties.getBatchSize()));
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Transaction t : rows) {
+            ids.add(t.getId());
+        }
+
+        int copied = archive.copyFromTransactions(ids, LocalDateTime.now());
+        int deleted = repo.deleteByIds(ids);
+        if (copied != ids.size() || deleted != ids.size()) {
+            // as linhas estão bloqueadas; qualquer diferença é um erro e desfaz o chunk
+            throw new IllegalStateException("Archived " + copied + " and deleted " + deleted
+                    + " of " + ids.size() + " locked transactions");
+        }
+
+        for (Transaction t : rows) {
+            totals.archived(t);
+        }
+        return rows;
+    }
+
+    // meses anteriores a keepMonths (contando o atual) saem do arquivo inteiros
+    private int dropExpiredMonths(LocalDate today) {
+        if (properties.getKeepMonths() <= 0) {
+            return 0;
+        }
+        YearMonth oldestKept = YearMonth.from(today).minusMonths(properties.getKeepMonths() - 1L);
+        return archive.deleteMonthsBefore(oldestKept.getYear() * 100 + oldestKept.getMonthValue());
+    }
+}
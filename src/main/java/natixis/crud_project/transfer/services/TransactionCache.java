@@ -0,0 +1,62 @@
+package natixis.crud_project.transfer.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import natixis.crud_project.transfer.models.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of transactions by id (size + TTL eviction, hit/miss stats).
+ *
+ * Cached entities are shared between requests and must be treated as read-only;
+ * writers load their own copy and call {@link #invalidate(Long)} once the change is committed.
+ */
+@Component
+public class TransactionCache implements MeterBinder {
+
+    private final Cache<Long, Transaction> cache;
+
+    public TransactionCache(@Value("${transfer.cache.transactions.max-size:10000}") long maxSize,
+                            @Value("${transfer.cache.transactions.ttl:60s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached entity or loads it; concurrent misses for the same id share one load.
+     * Absent rows are not cached.
+     */
+    public Optional<Transaction> get(Long id, Function<Long, Optional<Transaction>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // cache.gets{result=hit|miss}, cache.evictions, cache.size com cache=transactions
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "transactions");
+    }
+}
@@ -0,0 +1,433 @@
+package natixis.crud_project.transfer.services;
+
+import jakarta.annotation.PreDestroy;
+import natixis.crud_project.transfer.config.ImportProperties;
+import natixis.crud_project.transfer.dto.TransactionRequest;
+import natixis.crud_project.transfer.exceptions.BusinessException;
+import natixis.crud_project.transfer.models.ChangeType;
+import natixis.crud_project.transfer.models.ImportJob;
+import natixis.crud_project.transfer.models.ImportJobStatus;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.repositories.ImportJobRepository;
+import natixis.crud_project.transfer.repositories.TransactionRepository;
+import natixis.crud_project.transfer.utils.TransactionMapper;
+import natixis.crud_project.transfer.utils.TransactionValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Imports scheduled transfers from CSV files
+ * ({@code originAccount,destinationAccount,amount,scheduledDate}, optional header line).
+ *
+ * The file is read sequentially through a FileChannel in chunks of chunkSize lines. Each chunk is
+ * parsed, validated and priced in parallel, then inserted in JDBC batches in one transaction that
+ * also saves the job checkpoint (byte offset, counters). Rejected lines go to a reject report
+ * ({@code <job>.rejects.csv}). A job that fails, or is cut short by a restart, resumes at its
+ * checkpoint. Jobs run one at a time on a single import thread.
+ */
+@Service
+public class TransactionImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionImportService.class);
+
+    static final String REJECTS_HEADER = "line,reason,content\n";
+
+    private final ImportJobRepository jobRepo;
+    private final TransactionRepository repo;
+    private final TransactionService service;
+    private final AccountTotals totals;
+    private final TransactionOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportProperties properties;
+
+    private final ExecutorService runner;
+    private final ForkJoinPool validators;
+    private final Set<Long> active = ConcurrentHashMap.newKeySet();
+
+    public TransactionImportService(ImportJobRepository jobRepo,
+                                    TransactionRepository repo,
+                                    TransactionService service,
+                                    AccountTotals totals,
+                                    TransactionOutbox outbox,
+                                    TransactionTemplate transactionTemplate,
+                                    ImportProperties properties) {
+        this.jobRepo = jobRepo;
+        this.repo = repo;
+        this.service = service;
+        this.totals = totals;
+        this.outbox = outbox;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.runner = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "transfer-import");
+            t.setDaemon(true);
+            return t;
+        });
+        this.validators = new ForkJoinPool(properties.getParallelism());
+    }
+
+    /**
+     * Stores the uploaded file and starts importing it in the background.
+     */
+    public ImportJob submit(String fileName, InputStream content) throws IOException {
+        Path directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+
+        ImportJob job = new ImportJob();
+        job.setFileName(fileName);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        job = jobRepo.save(job);
+
+        Path stored = directory.resolve(job.getId() + ".csv");
+        Files.copy(content, stored, StandardCopyOption.REPLACE_EXISTING);
+        job.setStoredPath(stored.toString());
+        job = jobRepo.save(job);
+
+        start(job.getId());
+        return job;
+    }
+
+    /**
+     * Restarts a failed job from its last checkpoint.
+     */
+    public ImportJob resume(Long id) {
+        ImportJob job = jobRepo.findById(id).orElse(null);
+        if (job == null) {
+            return null;
+        }
+        if (job.getStatus() == ImportJobStatus.COMPLETED) {
+            throw new BusinessException("Import " + id + " is already completed");
+        }
+        if (active.contains(id)) {
+            throw new BusinessException("Import " + id + " is already running");
+        }
+        job.setStatus(ImportJobStatus.RUNNING);
+        job.setLastError(null);
+        job = jobRepo.save(job);
+
+        start(id);
+        return job;
+    }
+
+    public Optional<ImportJob> find(Long id) {
+        return jobRepo.findById(id);
+    }
+
+    public Path rejectReport(ImportJob job) {
+        return Paths.get(job.getStoredPath() + ".rejects.csv");
+    }
+
+    // jobs que estavam a correr quando a aplicação parou continuam do checkpoint
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        for (ImportJob job : jobRepo.findByStatus(ImportJobStatus.RUNNING)) {
+            if (job.getStoredPath() == null) {
+                // a aplicação parou antes de o ficheiro ser guardado
+                continue;
+            }
+            log.info("Resuming import {} at line {}", job.getId(), job.getLinesRead());
+            start(job.getId());
+        }
+    }
+
+    private void start(Long id) {
+        if (active.add(id)) {
+            runner.execute(() -> {
+                try {
+                    run(id);
+                } finally {
+                    active.remove(id);
+                }
+            });
+        }
+    }
+
+    void run(Long id) {
+        ImportJob job = jobRepo.findById(id).orElseThrow();
+        Path file = Paths.get(job.getStoredPath());
+        Path rejects = rejectReport(job);
+
+        try (FileChannel input = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel report = FileChannel.open(rejects, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+            LineReader lines = new LineReader(input, job.getNextOffset());
+
+            // rejeições escritas depois do último checkpoint pertencem a um chunk que vai ser repetido
+            report.truncate(job.getRejectsOffset());
+            report.position(job.getRejectsOffset());
+            if (job.getRejectsOffset() == 0) {
+                job.setRejectsOffset(write(report, REJECTS_HEADER));
+            }
+
+            long lineNumber = job.getLinesRead();
+            List<String> chunk = new ArrayList<>(properties.getChunkSize());
+            while (true) {
+                chunk.clear();
+                String line;
+                while (chunk.size() < properties.getChunkSize() && (line = lines.next()) != null) {
+                    chunk.add(line);
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                long firstLine = lineNumber + 1;
+                lineNumber += chunk.size();
+                job = importChunk(job, chunk, firstLine, lines.position(), report);
+            }
+
+            job.setStatus(ImportJobStatus.COMPLETED);
+            job.setUpdatedAt(LocalDateTime.now());
+            jobRepo.save(job);
+            log.info("Import {} completed: {} imported, {} rejected", id, job.getImported(), job.getRejected());
+        } catch (IOException | RuntimeException ex) {
+            log.error("Import {} failed at line {}", id, job.getLinesRead(), ex);
+            ImportJob failed = jobRepo.findById(id).orElse(job);
+            failed.setStatus(ImportJobStatus.FAILED);
+            failed.setLastError(truncate(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage()));
+            failed.setUpdatedAt(LocalDateTime.now());
+            jobRepo.save(failed);
+        }
+    }
+
+    private ImportJob importChunk(ImportJob job, List<String> chunk, long firstLine, long endOffset,
+                                  FileChannel report) throws IOException {
+        Row[] rows = validateInParallel(chunk, firstLine);
+
+        List<Transaction> accepted = new ArrayList<>(rows.length);
+        StringBuilder rejected = new StringBuilder();
+        int rejectedCount = 0;
+        for (Row row : rows) {
+            if (row == null) {
+                continue;
+            }
+            if (row.error() == null) {
+                accepted.add(row.transaction());
+            } else {
+                rejectedCount++;
+                rejected.append(row.line()).append(',');
+                appendCsvCell(rejected, row.error());
+                rejected.append(',');
+                appendCsvCell(rejected, row.content());
+                rejected.append('\n');
+            }
+        }
+
+        try {
+            // o relatório vai para disco antes do checkpoint que o conta
+            long rejectsOffset = job.getRejectsOffset() + write(report, rejected.toString());
+            report.force(false);
+
+            job.setNextOffset(endOffset);
+            job.setLinesRead(firstLine - 1 + chunk.size());
+            job.setRejectsOffset(rejectsOffset);
+            job.setImported(job.getImported() + accepted.size());
+            job.setRejected(job.getRejected() + rejectedCount);
+            job.setUpdatedAt(LocalDateTime.now());
+
+            ImportJob checkpoint = job;
+            ImportJob saved = transactionTemplate.execute(status -> {
+                repo.insertAll(accepted);
+                outbox.recordAll(ChangeType.CREATED, accepted);
+                return jobRepo.save(checkpoint);
+            });
+            accepted.forEach(totals::created);
+            return saved;
+        } catch (IOException | RuntimeException ex) {
+            // o chunk não ficou gravado: as reservas do ledger feitas na validação são libertadas
+            accepted.forEach(service::discard);
+            throw ex;
+        }
+    }
+
+    private record Row(long line, Transaction transaction, String error, String content) {
+    }
+
+    private Row[] validateInParallel(List<String> chunk, long firstLine) {
+        try {
+            return validators.submit(() -> IntStream.range(0, chunk.size())
+                            .parallel()
+                            .mapToObj(i -> toRow(chunk.get(i), firstLine + i))
+                            .toArray(Row[]::new))
+                    .get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Validation failed", ex.getCause());
+        }
+    }
+
+    // null para linhas a ignorar (cabeçalho, linhas vazias)
+    private Row toRow(String line, long number) {
+        if (line.isBlank() || (number == 1 && line.startsWith("originAccount"))) {
+            return null;
+        }
+
+        List<String> cells = splitCsv(line);
+        if (cells.size() != 4) {
+            return new Row(number, null, "expected 4 columns, found " + cells.size(), line);
+        }
+
+        TransactionRequest request = new TransactionRequest();
+        request.setOriginAccount(cells.get(0).trim());
+        request.setDestinationAccount(cells.get(1).trim());
+        try {
+            request.setAmount(cells.get(2).isBlank() ? null : new BigDecimal(cells.get(2).trim()));
+            request.setScheduledDate(cells.get(3).isBlank() ? null : LocalDate.parse(cells.get(3).trim()));
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            return new Row(number, null, "invalid amount or scheduledDate", line);
+        }
+
+        List<String> errors = TransactionValidator.validate(request);
+        if (!errors.isEmpty()) {
+            return new Row(number, null, String.join("; ", errors), line);
+        }
+
+        try {
+            // mesmas regras de fee que o POST
+            Transaction t = service.prepare(TransactionMapper.toEntity(request));
+            return new Row(number, t, null, line);
+        } catch (BusinessException ex) {
+            return new Row(number, null, ex.getMessage(), line);
+        }
+    }
+
+    /**
+     * Splits one RFC 4180 line: quoted cells may contain commas and doubled quotes.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>(4);
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static void appendCsvCell(StringBuilder out, String value) {
+        out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static long write(FileChannel channel, String text) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        int length = bytes.remaining();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        return length;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 255 ? message.substring(0, 255) : message;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        validators.shutdownNow();
+    }
+
+    /**
+     * Reads UTF-8 lines from a FileChannel through one reused buffer, tracking the byte offset
+     * just after the last line returned (the resume position).
+     */
+    static final class LineReader {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        private byte[] line = new byte[256];
+        private long position;
+
+        LineReader(FileChannel channel, long start) throws IOException {
+            this.channel = channel;
+            this.position = start;
+            channel.position(start);
+            buffer.limit(0);
+        }
+
+        String next() throws IOException {
+            int length = 0;
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                    int read = channel.read(buffer);
+                    buffer.flip();
+                    if (read <= 0) {
+                        return length == 0 ? null : decode(length);
+                    }
+                }
+                byte b = buffer.get();
+                position++;
+                if (b == '\n') {
+                    return decode(length);
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+            }
+        }
+
+        long position() {
+            return position;
+        }
+
+        private String decode(int length) {
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
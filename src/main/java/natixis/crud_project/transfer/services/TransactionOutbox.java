@@ -0,0 +1,72 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.dto.TransactionChangePage;
+import natixis.crud_project.transfer.dto.TransactionChangeResponse;
+import natixis.crud_project.transfer.models.ChangeType;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionChange;
+import natixis.crud_project.transfer.repositories.TransactionChangeRepository;
+import natixis.crud_project.transfer.utils.TransactionMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the outbox records of transaction changes and serves the change feed from them.
+ *
+ * record and recordAll must be called inside the database transaction that makes the change,
+ * so a change and its record commit or roll back together. Positions are assigned later by
+ * {@link TransactionOutboxRelay}; the feed only returns published records.
+ */
+@Component
+public class TransactionOutbox {
+
+    private final TransactionChangeRepository repo;
+    private final boolean enabled;
+
+    public TransactionOutbox(TransactionChangeRepository repo,
+                             @Value("${transfer.outbox.enabled:false}") boolean enabled) {
+        this.repo = repo;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(ChangeType type, Transaction t) {
+        if (!enabled) {
+            return;
+        }
+        repo.save(TransactionMapper.toChange(type, t, LocalDateTime.now()));
+    }
+
+    public void recordAll(ChangeType type, List<Transaction> transactions) {
+        if (!enabled || transactions.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionChange> changes = new ArrayList<>(transactions.size());
+        for (Transaction t : transactions) {
+            changes.add(TransactionMapper.toChange(type, t, now));
+        }
+        repo.insertAll(changes);
+    }
+
+    /**
+     * Published changes with position greater than since, in position order; one index range scan.
+     */
+    public TransactionChangePage changesSince(long since, int limit) {
+        List<TransactionChange> rows = repo.findByPositionGreaterThanOrderByPositionAsc(since, Limit.of(limit));
+        List<TransactionChangeResponse> items = new ArrayList<>(rows.size());
+        for (TransactionChange c : rows) {
+            items.add(TransactionMapper.toResponse(c));
+        }
+        long next = rows.isEmpty() ? since : rows.get(rows.size() - 1).getPosition();
+        return new TransactionChangePage(items, next);
+    }
+}
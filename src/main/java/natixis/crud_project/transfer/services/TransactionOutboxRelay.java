@@ -0,0 +1,103 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.config.OutboxProperties;
+import natixis.crud_project.transfer.models.TransactionChange;
+import natixis.crud_project.transfer.repositories.TransactionChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes outbox records to the {@link ChangeSink} in ordered batches.
+ *
+ * Each batch locks the oldest unpublished records, numbers them after the highest published
+ * position, hands them to the sink and commits the positions in the same database transaction.
+ * A failed publish rolls the positions back and the batch is offered again on the next run.
+ */
+@Service
+@ConditionalOnProperty(prefix = "transfer.outbox", name = "enabled", havingValue = "true")
+public class TransactionOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionOutboxRelay.class);
+
+    private final TransactionChangeRepository repo;
+    private final ChangeSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TransactionOutboxRelay(TransactionChangeRepository repo,
+                                  ChangeSink sink,
+                                  TransactionTemplate transactionTemplate,
+                                  OutboxProperties properties) {
+        this.repo = repo;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.outbox.relay-interval:200ms}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            relay();
+        } catch (RuntimeException ex) {
+            log.warn("Outbox relay failed, retrying on the next run", ex);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Publishes until no unpublished record is left. Returns the number of records published.
+     */
+    public int relay() {
+        int total = 0;
+        while (true) {
+            Integer published = transactionTemplate.execute(status -> publishBatch());
+            if (published == null || published == 0) {
+                return total;
+            }
+            total += published;
+            if (published < properties.getBatchSize()) {
+                return total;
+            }
+        }
+    }
+
+    private int publishBatch() {
+        List<TransactionChange> pending = repo.findUnpublishedForUpdate(Limit.of(properties.getBatchSize()));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Long last = repo.findMaxPosition();
+        long next = last == null ? 1 : last + 1;
+        for (TransactionChange change : pending) {
+            change.setPosition(next++);
+        }
+
+        // antes do commit: se o sink falhar, as posições não ficam gravadas e o batch repete-se
+        sink.publish(pending);
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.outbox.purge-interval:1h}")
+    public void purgePublished() {
+        int removed = repo.deletePublishedBefore(LocalDateTime.now().minus(properties.getRetention()));
+        if (removed > 0) {
+            log.info("Purged {} published transaction changes", removed);
+        }
+    }
+}
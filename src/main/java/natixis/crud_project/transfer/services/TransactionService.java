@@ -1,71 +1,603 @@
 package natixis.crud_project.transfer.services;
 
+import natixis.crud_project.transfer.dto.AccountExposure;
+import natixis.crud_project.transfer.dto.TransactionBatchItem;
+import natixis.crud_project.transfer.dto.TransactionBatchResponse;
+import natixis.crud_project.transfer.dto.TransactionChangePage;
+import natixis.crud_project.transfer.dto.TransactionFilter;
+import natixis.crud_project.transfer.dto.TransactionPage;
+import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.dto.TransactionStatementPage;
 import natixis.crud_project.transfer.exceptions.BusinessException;
+import natixis.crud_project.transfer.exceptions.PreconditionFailedException;
+import natixis.crud_project.transfer.models.ArchivedTransaction;
+import natixis.crud_project.transfer.models.ChangeType;
+import natixis.crud_project.transfer.models.IdempotencyRecord;
 import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import natixis.crud_project.transfer.repositories.ArchivedTransactionRepository;
 import natixis.crud_project.transfer.repositories.TransactionRepository;
+import natixis.crud_project.transfer.utils.FeeResult;
+import natixis.crud_project.transfer.utils.FeeSchedule;
 import natixis.crud_project.transfer.utils.TaxCalculator;
+import natixis.crud_project.transfer.utils.TransactionMapper;
+import natixis.crud_project.transfer.utils.TransactionValidator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class TransactionService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    private static final Comparator<TransactionResponse> STATEMENT_ORDER =
+            Comparator.comparing(TransactionResponse::getScheduledDate).thenComparing(TransactionResponse::getId);
+
     private final TransactionRepository repo;
+    private final TransactionCache cache;
+    private final TransferMetrics metrics;
+    private final IdempotencyStore idempotency;
+    private final AccountTotals totals;
+    private final ArchivedTransactionRepository archive;
+    private final TransactionOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
 
-    public TransactionService(TransactionRepository repo) {
+    public TransactionService(TransactionRepository repo,
+                              TransactionCache cache,
+                              TransferMetrics metrics,
+                              IdempotencyStore idempotency,
+                              AccountTotals totals,
+                              ArchivedTransactionRepository archive,
+                              TransactionOutbox outbox,
+                              TransactionTemplate transactionTemplate) {
         this.repo = repo;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.idempotency = idempotency;
+        this.totals = totals;
+        this.archive = archive;
+        this.outbox = outbox;
+        this.transactionTemplate = transactionTemplate;
     }
 
     public Transaction create(Transaction t) {
-        t.setCreatedAt(LocalDateTime.now());
+        prepare(t);
+        Transaction saved;
+        try {
+            // o registo do outbox faz commit com a linha; dentro do createOnce junta-se à transação da chave
+            saved = transactionTemplate.execute(status -> {
+                Transaction row = repo.save(t);
+                outbox.record(ChangeType.CREATED, row);
+                return row;
+            });
+        } catch (RuntimeException ex) {
+            totals.discard(t);
+            throw ex;
+        }
+        totals.created(saved);
+        return saved;
+    }
 
+    /**
+     * Sets createdAt, holds the amount on the account ledger and prices the transaction, without saving it.
+     * Throws BusinessException when the daily limit would be exceeded and FeeRejectedException when no
+     * fee rule applies. A caller that then fails to save the transaction must {@link #discard} it.
+     */
+    public Transaction prepare(Transaction t) {
+        t.setCreatedAt(LocalDateTime.now());
 
+        // limite diário antes do pricing: um pedido recusado não chega a calcular o fee
+        totals.reserve(t);
         try {
-            t.setFee(TaxCalculator.calculateFee(t.getAmount(), t.getScheduledDate()));
-        } catch (BusinessException ex) {
+            price(t, t.getCreatedAt().toLocalDate());
+        } catch (RuntimeException ex) {
+            totals.discard(t);
             throw ex;
         }
 
-        return repo.save(t);
+        return t;
+    }
+
+    /**
+     * Gives back the ledger hold of a prepared transaction that was not saved.
+     */
+    public void discard(Transaction t) {
+        totals.discard(t);
+    }
+
+    /**
+     * Creates the transaction at most once per {@code idempotencyKey} (null = no key).
+     * A repeated key returns the transaction as it was created the first time, without pricing or
+     * inserting again. Throws BusinessException when the key was used with a different request.
+     */
+    public Transaction create(Transaction t, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return create(t);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyStore.MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key must have between 1 and "
+                    + IdempotencyStore.MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = IdempotencyStore.requestHash(t);
+        Optional<Transaction> original = replay(idempotencyKey, requestHash);
+        if (original.isPresent()) {
+            return original.get();
+        }
+
+        // create() liberta a reserva se falhar, e o rollback da chave também (AccountTotals.created)
+        try {
+            Transaction saved = idempotency.createOnce(idempotencyKey, requestHash, () -> create(t));
+            idempotency.remember(idempotencyKey, requestHash, saved);
+            return saved;
+        } catch (DataIntegrityViolationException ex) {
+            // um pedido concorrente com a mesma chave fez commit primeiro
+            return replay(idempotencyKey, requestHash).orElseThrow(() -> ex);
+        }
+    }
+
+    /**
+     * Validates and prices every item and inserts the accepted ones in JDBC batches, in a single transaction.
+     * Invalid items and items rejected by the fee rules are reported individually and do not fail the batch.
+     */
+    @Transactional
+    public TransactionBatchResponse createBatch(List<Transaction> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException("Batch cannot contain more than " + MAX_BATCH_SIZE + " transactions");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        List<TransactionBatchItem> results = new ArrayList<>(items.size());
+        List<Transaction> accepted = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            Transaction t = items.get(i);
+            // List<@Valid ...> não é validado no controller: cada item é verificado aqui
+            List<String> errors = TransactionValidator.validate(t);
+            if (!errors.isEmpty()) {
+                results.add(new TransactionBatchItem(i, TransactionBatchItem.REJECTED, null, String.join("; ", errors)));
+                continue;
+            }
+            try {
+                t.setCreatedAt(now);
+                totals.reserve(t);
+                FeeResult fee = tryPrice(t, today);
+                if (fee.isRejected()) {
+                    totals.discard(t);
+                    results.add(new TransactionBatchItem(i, TransactionBatchItem.REJECTED, null, fee.getMessage()));
+                    continue;
+                }
+                accepted.add(t);
+                results.add(new TransactionBatchItem(i, TransactionBatchItem.CREATED, null, null));
+            } catch (BusinessException ex) {
+                results.add(new TransactionBatchItem(i, TransactionBatchItem.REJECTED, null, ex.getMessage()));
+            }
+        }
+
+        // o batch corre numa transação: se não fizer commit, as reservas dos aceites são libertadas
+        accepted.forEach(totals::created);
+        repo.insertAll(accepted);
+        outbox.recordAll(ChangeType.CREATED, accepted);
+
+        // os ids só existem depois do persist
+        int next = 0;
+        for (TransactionBatchItem item : results) {
+            if (TransactionBatchItem.CREATED.equals(item.getStatus())) {
+                item.setTransaction(TransactionMapper.toResponse(accepted.get(next++)));
+            }
+        }
+
+        return new TransactionBatchResponse(accepted.size(), items.size() - accepted.size(), results);
     }
 
     public List<Transaction> listAll() {
         return repo.findAll();
     }
 
+    /**
+     * Keyset pagination on id. Fetches one extra row to know if there is a next page.
+     */
+    public TransactionPage listPage(TransactionFilter filter, Long afterId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Transaction> rows = repo.findPage(filter, afterId, size + 1);
+        return toPage(rows, size);
+    }
+
+    /**
+     * Transfers where the account is origin or destination, scheduled between from and to (inclusive),
+     * ordered by scheduledDate then id and keyset-paginated on that pair. Uses one bounded index range
+     * scan per side instead of an OR, read as responses rather than entities.
+     * Without a complete cursor (afterDate and afterId) the page starts at from.
+     */
+    public TransactionStatementPage statement(String account, LocalDate from, LocalDate to,
+                                              LocalDate afterDate, Long afterId, int limit) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("from must not be after to");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // id > 0 apanha todas as linhas do primeiro dia
+        LocalDate cursorDate = from;
+        long cursorId = 0L;
+        if (afterDate != null && afterId != null && !afterDate.isBefore(from)) {
+            cursorDate = afterDate;
+            cursorId = afterId;
+        }
+
+        // size + 1 de cada lado chega: as primeiras size + 1 linhas do merge vêm todas destas
+        List<TransactionResponse> outgoing =
+                repo.findOutgoingStatement(account, cursorDate, cursorId, to, Limit.of(size + 1));
+        List<TransactionResponse> incoming =
+                repo.findIncomingStatement(account, cursorDate, cursorId, to, Limit.of(size + 1));
+
+        // merge das duas listas já ordenadas; uma transferência para a própria conta aparece só uma vez
+        List<TransactionResponse> merged = new ArrayList<>(size + 1);
+        int i = 0;
+        int j = 0;
+        while (merged.size() <= size && (i < outgoing.size() || j < incoming.size())) {
+            TransactionResponse next;
+            if (j >= incoming.size()) {
+                next = outgoing.get(i++);
+            } else if (i >= outgoing.size()) {
+                next = incoming.get(j++);
+            } else {
+                TransactionResponse a = outgoing.get(i);
+                TransactionResponse b = incoming.get(j);
+                int cmp = STATEMENT_ORDER.compare(a, b);
+                if (cmp == 0) {
+                    j++;
+                }
+                next = cmp <= 0 ? outgoing.get(i++) : incoming.get(j++);
+            }
+            merged.add(next);
+        }
+
+        if (merged.size() <= size) {
+            return new TransactionStatementPage(merged, null, null);
+        }
+        List<TransactionResponse> page = merged.subList(0, size);
+        TransactionResponse last = page.get(size - 1);
+        return new TransactionStatementPage(new ArrayList<>(page), last.getScheduledDate(), last.getId());
+    }
+
+    /**
+     * Outgoing totals of the account for transfers scheduled between from and to (inclusive),
+     * answered from the in-memory exposure index.
+     */
+    public AccountExposure exposure(String account, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("from must not be after to");
+        }
+        return totals.summary(account, from, to);
+    }
+
+    /**
+     * Transfers scheduled for the given date, keyset-paginated on id.
+     */
+    public TransactionPage dueOn(LocalDate date, Long afterId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Transaction> rows = repo.findByScheduledDateAndIdGreaterThanOrderByIdAsc(
+                date, afterId == null ? 0L : afterId, Limit.of(size + 1));
+        return toPage(rows, size);
+    }
+
+    public void streamAll(TransactionFilter filter, Consumer<Transaction> consumer) {
+        repo.forEach(filter, consumer);
+    }
+
+    /**
+     * Changes published after position since, oldest first. Reads only the new records, through the
+     * position index, so a consumer polling with the returned cursor costs O(changes), not O(table).
+     */
+    public TransactionChangePage changes(long since, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return outbox.changesSince(since, size);
+    }
+
+    public boolean isChangeFeedEnabled() {
+        return outbox.isEnabled();
+    }
+
     public Optional<Transaction> findById(Long id) {
-        return repo.findById(id);
+        return cache.get(id, repo::findById);
+    }
+
+    /**
+     * Like {@link #findById(Long)}, falling back to the archive for transactions the archiver moved out.
+     * Archived transactions are read-only: updates and deletes only see the hot table.
+     */
+    public Optional<Transaction> findIncludingArchive(Long id) {
+        Optional<Transaction> hot = findById(id);
+        if (hot.isPresent()) {
+            return hot;
+        }
+        return archive.findById(id).map(TransactionService::fromArchive);
     }
 
     public Transaction update(Long id, Transaction updated) {
+        return update(id, updated, null);
+    }
 
-        return repo.findById(id).map(existing -> {
+    /**
+     * Replaces the editable fields with one guarded UPDATE (no read-before-write on a cache hit).
+     *
+     * The write is conditional on the stored version, which must be one of {@code expectedVersions}
+     * (the If-Match list); null accepts any version.
+     * Throws PreconditionFailedException when the stored version is not one of expectedVersions,
+     * OptimisticLockingFailureException when a concurrent writer keeps winning.
+     *
+     * @return the updated transaction, or null if it does not exist
+     */
+    public Transaction update(Long id, Transaction updated, Set<Long> expectedVersions) {
+        return writeScheduled(id, expectedVersions, updated, false);
+    }
 
-            existing.setOriginAccount(updated.getOriginAccount());
-            existing.setDestinationAccount(updated.getDestinationAccount());
-            existing.setAmount(updated.getAmount());
-            existing.setScheduledDate(updated.getScheduledDate());
+    /**
+     * Like {@link #update(Long, Transaction, Set)}, but only the non-null fields of {@code changes}
+     * are written. The fee is recalculated only when amount or scheduledDate change.
+     * Throws BusinessException when a field present in {@code changes} is invalid (blank account).
+     */
+    public Transaction patch(Long id, Transaction changes, Set<Long> expectedVersions) {
+        // as anotações do pedido não são validadas: um valor em branco chegaria tal e qual ao UPDATE
+        List<String> errors = TransactionValidator.validatePatch(changes);
+        if (!errors.isEmpty()) {
+            throw new BusinessException(String.join("; ", errors));
+        }
+        return writeScheduled(id, expectedVersions, changes, true);
+    }
 
-            // recalcular fee
-            existing.setFee(
-                    TaxCalculator.calculateFee(existing.getAmount(), existing.getScheduledDate())
-            );
+    /**
+     * Deletes with one DELETE guarded on the cached version and on status SCHEDULED, so the exposure
+     * index can be updated with the row that was actually removed. The row is only re-read when
+     * nothing was deleted: throws BusinessException when it is no longer SCHEDULED (claimed or run
+     * by the executor), OptimisticLockingFailureException when a concurrent writer keeps winning.
+     */
+    public boolean delete(Long id) {
+        Transaction existing = findById(id).orElse(null);
 
-            return repo.save(existing);
+        for (int attempt = 0; existing != null; attempt++) {
+            Transaction current = existing;
+            int removed = transactionTemplate.execute(status -> remove(current));
+            cache.invalidate(id);
+            if (removed == 1) {
+                totals.removed(existing);
+                return true;
+            }
 
-        }).orElse(null);
+            existing = repo.findById(id).orElse(null);
+            if (existing == null) {
+                break;
+            }
+            if (existing.getStatus() != TransactionStatus.SCHEDULED) {
+                throw new BusinessException("Only scheduled transactions can be deleted (status " + existing.getStatus() + ")");
+            }
+            if (attempt > 0) {
+                throw new OptimisticLockingFailureException("Transaction " + id + " was modified concurrently");
+            }
+        }
+        return false;
     }
 
-    public boolean delete(Long id) {
-        if (!repo.existsById(id)) {
-            return false;
+    private Transaction writeScheduled(Long id, Set<Long> expectedVersions, Transaction changes, boolean partial) {
+        Transaction existing = findById(id).orElse(null);
+        if (existing != null && !matches(expectedVersions, existing)) {
+            // a cache pode estar atrás da versão que o cliente já viu
+            cache.invalidate(id);
+            existing = repo.findById(id).orElse(null);
+            if (existing != null && !matches(expectedVersions, existing)) {
+                throw modified(id, existing);
+            }
+        }
+
+        // no máximo duas tentativas: a segunda só acontece se a cache tinha uma versão antiga
+        for (int attempt = 0; existing != null; attempt++) {
+            // o UPDATE fica guardado na versão lida, que com If-Match é uma das versões pedidas
+            Long version = existing.getVersion();
+            Transaction result = merge(existing, changes, partial);
+            result.setVersion(version);
+
+            // o ledger passa para os novos valores antes do UPDATE e volta atrás se a linha não for escrita
+            totals.reserve(existing, result);
+            int rows;
+            try {
+                rows = transactionTemplate.execute(status -> write(id, version, changes, result, partial));
+            } catch (RuntimeException ex) {
+                totals.discard(existing, result);
+                throw ex;
+            }
+            cache.invalidate(id);
+
+            if (rows == 1) {
+                totals.replaced(existing, result);
+                return result;
+            }
+            totals.discard(existing, result);
+
+            // só no caminho de conflito se lê a linha, para responder 404 / 412 / 409
+            existing = repo.findById(id).orElse(null);
+            if (existing == null) {
+                break;
+            }
+            if (!matches(expectedVersions, existing)) {
+                throw modified(id, existing);
+            }
+            if (existing.getStatus() != TransactionStatus.SCHEDULED) {
+                throw new BusinessException("Only scheduled transactions can be changed (status " + existing.getStatus() + ")");
+            }
+            if (attempt > 0) {
+                throw new OptimisticLockingFailureException("Transaction " + id + " was modified concurrently");
+            }
+        }
+        return null;
+    }
+
+    // sem If-Match qualquer versão serve
+    private static boolean matches(Set<Long> expectedVersions, Transaction t) {
+        return expectedVersions == null || expectedVersions.contains(t.getVersion());
+    }
+
+    private static PreconditionFailedException modified(Long id, Transaction current) {
+        return new PreconditionFailedException(
+                "Transaction " + id + " was modified (current version " + current.getVersion() + ")",
+                current.getVersion());
+    }
+
+    // UPDATE guardado na versão e registo do outbox na mesma transação; em sucesso result fica com a nova versão
+    private int write(Long id, Long version, Transaction changes, Transaction result, boolean partial) {
+        int rows;
+        if (partial) {
+            Transaction written = new Transaction();
+            written.setOriginAccount(changes.getOriginAccount());
+            written.setDestinationAccount(changes.getDestinationAccount());
+            written.setAmount(changes.getAmount());
+            written.setScheduledDate(changes.getScheduledDate());
+            if (changes.getAmount() != null || changes.getScheduledDate() != null) {
+                written.setFee(result.getFee());
+                written.setFeeScheduleVersion(result.getFeeScheduleVersion());
+            }
+            rows = repo.patchScheduled(id, version, written);
+        } else {
+            rows = repo.updateScheduled(id, version, result.getOriginAccount(), result.getDestinationAccount(),
+                    result.getAmount(), result.getScheduledDate(), result.getFee(), result.getFeeScheduleVersion());
+        }
+
+        if (rows == 1) {
+            result.setVersion(version + 1);
+            outbox.record(ChangeType.UPDATED, result);
         }
-        repo.deleteById(id);
-        return true;
+        return rows;
     }
 
+    private int remove(Transaction existing) {
+        int removed = repo.removeByIdAndVersion(existing.getId(), existing.getVersion());
+        if (removed == 1) {
+            outbox.record(ChangeType.DELETED, existing);
+        }
+        return removed;
+    }
+
+    // cópia: a entidade em cache é partilhada e não pode ser alterada
+    private Transaction merge(Transaction existing, Transaction changes, boolean partial) {
+        Transaction t = new Transaction();
+        t.setId(existing.getId());
+        t.setCreatedAt(existing.getCreatedAt());
+        t.setStatus(existing.getStatus());
+        t.setAttempts(existing.getAttempts());
+        t.setFee(existing.getFee());
+        t.setFeeScheduleVersion(existing.getFeeScheduleVersion());
+
+        t.setOriginAccount(pick(changes.getOriginAccount(), existing.getOriginAccount(), partial));
+        t.setDestinationAccount(pick(changes.getDestinationAccount(), existing.getDestinationAccount(), partial));
+        t.setAmount(pick(changes.getAmount(), existing.getAmount(), partial));
+        t.setScheduledDate(pick(changes.getScheduledDate(), existing.getScheduledDate(), partial));
+
+        // recalcular fee
+        if (!partial || changes.getAmount() != null || changes.getScheduledDate() != null) {
+            price(t, LocalDate.now());
+        }
+        return t;
+    }
 
+    private static <T> T pick(T change, T current, boolean partial) {
+        return partial && change == null ? current : change;
+    }
+
+    // a resposta original guardada com a chave, não a linha atual
+    private Optional<Transaction> replay(String idempotencyKey, String requestHash) {
+        return idempotency.find(idempotencyKey).map(record -> {
+            if (!record.getRequestHash().equals(requestHash)) {
+                throw new BusinessException("Idempotency-Key " + idempotencyKey
+                        + " was already used with a different request");
+            }
+            return fromIdempotencyRecord(record);
+        });
+    }
+
+    /**
+     * Sets fee and feeScheduleVersion from the same schedule snapshot,
+     * so a concurrent reload cannot mix one version's fee with another's label.
+     */
+    private void price(Transaction t, LocalDate today) {
+        FeeResult fee = tryPrice(t, today);
+        if (fee.isRejected()) {
+            throw fee.toException();
+        }
+    }
+
+    // rejeição devolvida, não lançada: o batch regista-a sem passar por uma exceção
+    private FeeResult tryPrice(Transaction t, LocalDate today) {
+        FeeSchedule schedule = TaxCalculator.currentSchedule();
+        long start = System.nanoTime();
+        FeeResult fee = schedule.price(t.getAmount(), t.getScheduledDate(), today);
+        if (fee.isRejected()) {
+            metrics.feeRejected(fee, System.nanoTime() - start);
+            return fee;
+        }
+        metrics.feePriced(fee.getTier(), System.nanoTime() - start);
+        t.setFee(fee.getFee());
+        t.setFeeScheduleVersion(schedule.getVersion());
+        return fee;
+    }
+
+    private static Transaction fromArchive(ArchivedTransaction a) {
+        Transaction t = new Transaction();
+        t.setId(a.getId());
+        t.setOriginAccount(a.getOriginAccount());
+        t.setDestinationAccount(a.getDestinationAccount());
+        t.setAmount(a.getAmount());
+        t.setScheduledDate(a.getScheduledDate());
+        t.setFee(a.getFee());
+        t.setFeeScheduleVersion(a.getFeeScheduleVersion());
+        t.setCreatedAt(a.getCreatedAt());
+        t.setVersion(a.getVersion());
+        t.setStatus(a.getStatus());
+        t.setExecutedAt(a.getExecutedAt());
+        t.setLastError(a.getLastError());
+        return t;
+    }
+
+    // como o create a devolveu: primeira versão, ainda SCHEDULED
+    private static Transaction fromIdempotencyRecord(IdempotencyRecord r) {
+        Transaction t = new Transaction();
+        t.setId(r.getTransactionId());
+        t.setOriginAccount(r.getOriginAccount());
+        t.setDestinationAccount(r.getDestinationAccount());
+        t.setAmount(r.getAmount());
+        t.setScheduledDate(r.getScheduledDate());
+        t.setFee(r.getFee());
+        t.setFeeScheduleVersion(r.getFeeScheduleVersion());
+        t.setCreatedAt(r.getCreatedAt());
+        t.setVersion(0L);
+        return t;
+    }
+
+    // recebe size + 1 linhas: a linha extra só indica que há próxima página
+    private static TransactionPage toPage(List<Transaction> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<Transaction> page = hasMore ? rows.subList(0, size) : rows;
+
+        List<TransactionResponse> items = new ArrayList<>(page.size());
+        for (Transaction t : page) {
+            items.add(TransactionMapper.toResponse(t));
+        }
+
+        Long nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+        return new TransactionPage(items, nextCursor);
+    }
 }
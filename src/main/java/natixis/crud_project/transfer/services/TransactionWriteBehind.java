@@ -0,0 +1,230 @@
+package natixis.crud_project.transfer.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import natixis.crud_project.transfer.config.WriteBehindProperties;
+import natixis.crud_project.transfer.models.ChangeType;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.repositories.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit pipeline for single creates.
+ *
+ * Callers validate and price synchronously, then queue the transaction on a bounded buffer.
+ * One writer thread drains the buffer into batches (up to batchSize rows, or whatever arrived
+ * within maxDelay of the first row) and inserts each batch in one transaction. A caller's future
+ * completes only after its batch commits, so a response still means the row is durable.
+ */
+@Service
+@ConditionalOnProperty(prefix = "transfer.write-behind", name = "enabled", havingValue = "true")
+public class TransactionWriteBehind implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionWriteBehind.class);
+
+    private record Pending(Transaction transaction, CompletableFuture<Transaction> result) {
+    }
+
+    private final TransactionService service;
+    private final TransactionRepository repo;
+    private final AccountTotals totals;
+    private final TransactionOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindProperties properties;
+
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile DistributionSummary batchSizes;
+
+    public TransactionWriteBehind(TransactionService service,
+                                  TransactionRepository repo,
+                                  AccountTotals totals,
+                                  TransactionOutbox outbox,
+                                  TransactionTemplate transactionTemplate,
+                                  WriteBehindProperties properties) {
+        this.service = service;
+        this.repo = repo;
+        this.totals = totals;
+        this.outbox = outbox;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+
+        this.writer = new Thread(this::run, "transfer-write-behind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Prices the transaction and queues it for the next group commit.
+     * Throws FeeRejectedException before queueing, and RejectedExecutionException when the buffer
+     * stays full for offerTimeout or shutdown has started.
+     */
+    public CompletableFuture<Transaction> create(Transaction t) {
+        service.prepare(t);
+
+        Pending pending = new Pending(t, new CompletableFuture<>());
+        boolean queued;
+        try {
+            queued = running && queue.offer(pending, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            service.discard(t);
+            throw new RejectedExecutionException(running ? "Write-behind buffer is full" : "Write-behind pipeline stopped");
+        }
+        // o shutdown pode ter começado depois da verificação, e o writer já ter esvaziado a fila pela
+        // última vez: se o pedido ainda lá está, ninguém o vai ler, por isso é recusado aqui
+        if (!running && queue.remove(pending)) {
+            service.discard(t);
+            throw new RejectedExecutionException("Write-behind pipeline stopped");
+        }
+        return pending.result();
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private void run() {
+        int batchSize = properties.getBatchSize();
+        long maxDelay = properties.getMaxDelay().toNanos();
+        List<Pending> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + maxDelay;
+                while (batch.size() < batchSize) {
+                    // o que já está na fila entra sem esperar
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                commit(batch);
+            } catch (InterruptedException ex) {
+                running = false;
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+            } catch (RuntimeException ex) {
+                log.error("Write-behind writer failed", ex);
+                for (Pending pending : batch) {
+                    fail(pending, ex);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // pedidos que entraram depois da última leitura da fila durante o shutdown
+        Pending late;
+        while ((late = queue.poll()) != null) {
+            fail(late, new RejectedExecutionException("Write-behind pipeline stopped"));
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        List<Transaction> rows = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            rows.add(pending.transaction());
+        }
+
+        try {
+            transactionTemplate.execute(status -> {
+                repo.insertAll(rows);
+                outbox.recordAll(ChangeType.CREATED, rows);
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            // um batch falhado não pode fazer falhar pedidos válidos: repete linha a linha
+            log.warn("Group commit of {} transactions failed, retrying individually", batch.size(), ex);
+            for (Pending pending : batch) {
+                commitOne(pending);
+            }
+            return;
+        }
+
+        if (batchSizes != null) {
+            batchSizes.record(batch.size());
+        }
+        for (Pending pending : batch) {
+            totals.created(pending.transaction());
+            pending.result().complete(pending.transaction());
+        }
+    }
+
+    private void commitOne(Pending pending) {
+        Transaction t = pending.transaction();
+        // o persist falhado pode ter atribuído id e versão
+        t.setId(null);
+        t.setVersion(null);
+        try {
+            Transaction saved = transactionTemplate.execute(status -> {
+                Transaction row = repo.save(t);
+                outbox.record(ChangeType.CREATED, row);
+                return row;
+            });
+            totals.created(saved);
+            pending.result().complete(saved);
+        } catch (RuntimeException ex) {
+            fail(pending, ex);
+        }
+    }
+
+    // a transação não foi gravada: liberta a reserva do ledger feita em prepare()
+    private void fail(Pending pending, Throwable ex) {
+        service.discard(pending.transaction());
+        pending.result().completeExceptionally(ex);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("transfer.write_behind.queued", queue, BlockingQueue::size)
+                .description("Creates waiting for a group commit")
+                .register(registry);
+        batchSizes = DistributionSummary.builder("transfer.write_behind.batch.size")
+                .description("Rows per group commit")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // deixa de aceitar pedidos e espera que o writer faça commit do que já está na fila
+        running = false;
+        writer.join(30_000);
+    }
+}
@@ -0,0 +1,283 @@
+package natixis.crud_project.transfer.services;
+
+import jakarta.annotation.PreDestroy;
+import natixis.crud_project.transfer.config.ExecutionProperties;
+import natixis.crud_project.transfer.models.ChangeType;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import natixis.crud_project.transfer.repositories.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Executes transfers whose scheduledDate has arrived.
+ *
+ * Each poll claims due rows in chunks (SELECT ... FOR UPDATE SKIP LOCKED, then status PROCESSING),
+ * so several nodes can drain the same table without double-claiming. Claimed rows are processed
+ * in sub-batches on a bounded worker pool; a node never holds more than maxInFlight claimed rows,
+ * which is the backpressure between claiming and executing. Results are written with one bulk
+ * UPDATE per sub-batch, guarded on status PROCESSING so a repeated write is a no-op. A failed
+ * attempt goes back to SCHEDULED with an exponential backoff (nextAttemptAt), so a downstream
+ * outage does not use up maxAttempts within a few polls.
+ * Every status change evicts the rows from the {@link TransactionCache} once it is committed,
+ * so reads and ETags never lag behind the executor, and is recorded in the {@link TransactionOutbox}
+ * as UPDATED in the same transaction, so the change feed follows a transfer to EXECUTED or FAILED.
+ */
+@Service
+@ConditionalOnProperty(prefix = "transfer.execution", name = "enabled", havingValue = "true")
+public class TransferExecutionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferExecutionService.class);
+
+    private final TransactionRepository repo;
+    private final TransferExecutor executor;
+    private final TransactionCache cache;
+    private final AccountTotals totals;
+    private final TransactionOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutionProperties properties;
+
+    private final ExecutorService workers;
+    private final Semaphore inFlight;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public TransferExecutionService(TransactionRepository repo,
+                                    TransferExecutor executor,
+                                    TransactionCache cache,
+                                    AccountTotals totals,
+                                    TransactionOutbox outbox,
+                                    TransactionTemplate transactionTemplate,
+                                    ExecutionProperties properties) {
+        this.repo = repo;
+        this.executor = executor;
+        this.cache = cache;
+        this.totals = totals;
+        this.outbox = outbox;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.inFlight = new Semaphore(properties.getMaxInFlight());
+
+        AtomicInteger threadIds = new AtomicInteger();
+        int queueCapacity = Math.max(1, properties.getMaxInFlight() / properties.getWorkerBatchSize());
+        this.workers = new ThreadPoolExecutor(
+                properties.getWorkers(), properties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "transfer-executor-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // a fila nunca enche (está limitada pelo semáforo), mas se encher quem reclamou executa
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.execution.poll-interval:5s}")
+    public void poll() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            drain();
+        } catch (RuntimeException ex) {
+            log.error("Transfer execution poll failed", ex);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Claims and dispatches due transfers until none are due or this node is at maxInFlight.
+     *
+     * @return number of transactions claimed
+     */
+    public int drain() {
+        LocalDateTime now = LocalDateTime.now();
+        releaseExpiredClaims(now.minus(properties.getClaimTimeout()));
+
+        int total = 0;
+        while (true) {
+            int capacity = Math.min(properties.getClaimSize(), inFlight.availablePermits());
+            if (capacity == 0) {
+                break;
+            }
+
+            List<Transaction> claimed = claim(now, capacity);
+            if (claimed.isEmpty()) {
+                break;
+            }
+            inFlight.acquireUninterruptibly(claimed.size());
+            total += claimed.size();
+
+            for (int from = 0; from < claimed.size(); from += properties.getWorkerBatchSize()) {
+                List<Transaction> batch = claimed.subList(from,
+                        Math.min(from + properties.getWorkerBatchSize(), claimed.size()));
+                workers.execute(() -> process(batch));
+            }
+
+            if (claimed.size() < capacity) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    List<Transaction> claim(LocalDateTime now, int size) {
+        List<Transaction> claimed = transactionTemplate.execute(status -> {
+            List<Transaction> due = repo.findDueForUpdate(TransactionStatus.SCHEDULED, now.toLocalDate(), now,
+                    Limit.of(size));
+            LocalDateTime claimedAt = LocalDateTime.now();
+            for (Transaction t : due) {
+                t.setStatus(TransactionStatus.PROCESSING);
+                t.setClaimedAt(claimedAt);
+                t.setAttempts(t.getAttempts() + 1);
+            }
+            if (outbox.isEnabled() && !due.isEmpty()) {
+                // o flush incrementa a versão, para o registo levar a versão que fica na tabela
+                repo.flush();
+                outbox.recordAll(ChangeType.UPDATED, due);
+            }
+            return due;
+        });
+        if (claimed == null) {
+            return Collections.emptyList();
+        }
+        for (Transaction t : claimed) {
+            cache.invalidate(t.getId());
+        }
+        return claimed;
+    }
+
+    private void releaseExpiredClaims(LocalDateTime cutoff) {
+        List<Long> expired = repo.findExpiredClaims(cutoff);
+        if (expired.isEmpty()) {
+            return;
+        }
+        int released = transactionTemplate.execute(status -> {
+            int rows = repo.releaseExpiredClaims(expired, cutoff);
+            if (rows > 0) {
+                recordChanges(expired, t -> t.getStatus() == TransactionStatus.SCHEDULED);
+            }
+            return rows;
+        });
+        expired.forEach(cache::invalidate);
+        if (released > 0) {
+            log.warn("Released {} expired transfer claims", released);
+        }
+    }
+
+    void process(List<Transaction> batch) {
+        List<Long> executed = new ArrayList<>(batch.size());
+        try {
+            for (Transaction t : batch) {
+                try {
+                    executor.execute(t);
+                    executed.add(t.getId());
+                } catch (RuntimeException ex) {
+                    recordFailure(t, ex);
+                }
+            }
+            if (!executed.isEmpty()) {
+                // a precisão da coluna, para reconhecer as linhas relidas
+                LocalDateTime executedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+                transactionTemplate.execute(status -> {
+                    repo.markExecuted(executed, executedAt);
+                    recordChanges(executed, t -> t.getStatus() == TransactionStatus.EXECUTED
+                            && executedAt.equals(t.getExecutedAt()));
+                    return null;
+                });
+                executed.forEach(cache::invalidate);
+            }
+        } catch (RuntimeException ex) {
+            // as linhas ficam PROCESSING e voltam a SCHEDULED quando a claim expirar
+            log.error("Could not record results of {} transfers", batch.size(), ex);
+        } finally {
+            inFlight.release(batch.size());
+        }
+    }
+
+    private void recordFailure(Transaction t, RuntimeException ex) {
+        TransactionStatus next = t.getAttempts() >= properties.getMaxAttempts()
+                ? TransactionStatus.FAILED
+                : TransactionStatus.SCHEDULED;
+        String message = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+        if (message.length() > 255) {
+            message = message.substring(0, 255);
+        }
+
+        LocalDateTime nextAttemptAt = next == TransactionStatus.SCHEDULED
+                ? LocalDateTime.now().plus(backoff(t.getAttempts()))
+                : null;
+
+        log.warn("Transfer {} attempt {} failed ({}): {}", t.getId(), t.getAttempts(), next, message);
+        String error = message;
+        int rows = transactionTemplate.execute(status -> {
+            int updated = repo.markAttemptFailed(t.getId(), next, error, nextAttemptAt);
+            if (updated == 1) {
+                recordChanges(List.of(t.getId()), r -> r.getStatus() == next);
+            }
+            return updated;
+        });
+        cache.invalidate(t.getId());
+        if (rows == 1 && next == TransactionStatus.FAILED) {
+            // transferências falhadas deixam de contar para a exposição e para o limite diário da conta
+            totals.removed(t);
+        }
+    }
+
+    // retryBackoff depois da 1.ª falha, o dobro a cada falha seguinte, no máximo maxRetryBackoff
+    /**
+     * Records UPDATED for the rows a bulk UPDATE in the current transaction changed. They are read
+     * back, still locked by that UPDATE, so each record carries the version left in the table.
+     */
+    private void recordChanges(List<Long> ids, Predicate<Transaction> changed) {
+        if (!outbox.isEnabled()) {
+            return;
+        }
+        List<Transaction> rows = new ArrayList<>(ids.size());
+        for (Transaction t : repo.findAllById(ids)) {
+            if (changed.test(t)) {
+                rows.add(t);
+            }
+        }
+        outbox.recordAll(ChangeType.UPDATED, rows);
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = properties.getRetryBackoff();
+        for (int i = 1; i < attempts && delay.compareTo(properties.getMaxRetryBackoff()) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(properties.getMaxRetryBackoff()) > 0 ? properties.getMaxRetryBackoff() : delay;
+    }
+
+    public int inFlight() {
+        return properties.getMaxInFlight() - inFlight.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
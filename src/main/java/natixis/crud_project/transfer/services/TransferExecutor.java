@@ -0,0 +1,15 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.models.Transaction;
+
+/**
+ * Performs the actual money movement of a due transfer.
+ *
+ * Implementations must be idempotent by transaction id: after a crash between executing
+ * and recording the result, the same transaction can be handed over again.
+ * Throwing marks the attempt as failed (it is retried up to transfer.execution.max-attempts).
+ */
+public interface TransferExecutor {
+
+    void execute(Transaction transaction);
+}
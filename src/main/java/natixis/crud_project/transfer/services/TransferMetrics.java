@@ -0,0 +1,69 @@
+package natixis.crud_project.transfer.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import natixis.crud_project.transfer.utils.FeeRejection;
+import natixis.crud_project.transfer.utils.FeeResult;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fee-calculation meters:
+ * - transfer.fee.calculation (timer) tagged by tier and outcome (priced / rejected)
+ * - transfer.fee.rejections (counter) tagged by reason and tier
+ *
+ * Meters are resolved once per tag combination and kept, so recording does not go through
+ * the registry lookup on every call.
+ */
+@Component
+public class TransferMetrics {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Timer> pricedTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> rejectedTimers = new ConcurrentHashMap<>();
+    // preenchido no construtor e só lido depois: sem concatenação de chaves por rejeição
+    private final Map<FeeRejection, ConcurrentMap<String, Counter>> rejections = new EnumMap<>(FeeRejection.class);
+
+    public TransferMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (FeeRejection reason : FeeRejection.values()) {
+            rejections.put(reason, new ConcurrentHashMap<>());
+        }
+    }
+
+    public void feePriced(String tier, long nanos) {
+        String tag = tier == null ? NONE : tier;
+        pricedTimers.computeIfAbsent(tag, t -> feeTimer(t, "priced"))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void feeRejected(FeeResult rejection, long nanos) {
+        String tier = rejection.getTier() == null ? NONE : rejection.getTier();
+        FeeRejection reason = rejection.getRejection();
+
+        rejectedTimers.computeIfAbsent(tier, t -> feeTimer(t, "rejected"))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        rejections.get(reason).computeIfAbsent(tier, t -> Counter.builder("transfer.fee.rejections")
+                        .description("Transfers refused by the fee schedule")
+                        .tag("reason", reason.getCode())
+                        .tag("tier", t)
+                        .register(registry))
+                .increment();
+    }
+
+    private Timer feeTimer(String tier, String outcome) {
+        return Timer.builder("transfer.fee.calculation")
+                .description("Fee schedule lookup and fee computation")
+                .tag("tier", tier)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,27 @@
+package natixis.crud_project.transfer.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts as a long number of cents, for counters and wire formats that avoid BigDecimal arithmetic.
+ */
+public final class Cents {
+
+    private Cents() {}
+
+    /**
+     * The amount in cents, 0 for null. The column has scale 2: amounts with more decimal places are
+     * rounded half-up, as the database does. Throws ArithmeticException when it does not fit in a long.
+     */
+    public static long of(BigDecimal amount) {
+        return amount == null ? 0L : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * The amount, with scale 2.
+     */
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,21 @@
+package natixis.crud_project.transfer.utils;
+
+/**
+ * Why the fee schedule refused to price a transfer. The code is used as a metrics tag.
+ */
+public enum FeeRejection {
+    AMOUNT_NOT_POSITIVE("amount_not_positive"),
+    DATE_IN_PAST("date_in_past"),
+    NO_RULE_FOR_DAYS("no_rule_for_days"),
+    AMOUNT_OUT_OF_RANGE("amount_out_of_range");
+
+    private final String code;
+
+    FeeRejection(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,73 @@
+package natixis.crud_project.transfer.utils;
+
+import natixis.crud_project.transfer.exceptions.FeeRejectedException;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of pricing a transfer: a fee, or the reason the fee schedule refused it.
+ *
+ * Rejections are created once, when the schedule is compiled, and shared: rejecting a transfer
+ * allocates nothing, and {@link #toException()} returns the same stackless exception every time.
+ */
+public final class FeeResult {
+
+    private final BigDecimal fee;
+    private final String tier;
+    private final FeeRejection rejection;
+    private final String message;
+    private final FeeRejectedException exception;
+
+    private FeeResult(BigDecimal fee, String tier, FeeRejection rejection, String message) {
+        this.fee = fee;
+        this.tier = tier;
+        this.rejection = rejection;
+        this.message = message;
+        this.exception = rejection == null ? null : new FeeRejectedException(rejection, tier, message);
+    }
+
+    public static FeeResult priced(BigDecimal fee, String tier) {
+        return new FeeResult(fee, tier, null, null);
+    }
+
+    public static FeeResult rejected(FeeRejection rejection, String tier, String message) {
+        return new FeeResult(null, tier, rejection, message);
+    }
+
+    public boolean isRejected() {
+        return rejection != null;
+    }
+
+    public BigDecimal getFee() {
+        return fee;
+    }
+
+    /**
+     * Amount band that priced (or rejected) the transfer; null when no band applies.
+     */
+    public String getTier() {
+        return tier;
+    }
+
+    public FeeRejection getRejection() {
+        return rejection;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * The shared exception for this rejection; null when the transfer was priced.
+     */
+    public FeeRejectedException toException() {
+        return exception;
+    }
+
+    public BigDecimal feeOrThrow() {
+        if (exception != null) {
+            throw exception;
+        }
+        return fee;
+    }
+}
@@ -0,0 +1,448 @@
+package natixis.crud_project.transfer.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, precompiled fee table.
+ *
+ * The table is a list of amount bands (sorted by their inclusive upper bound), and each band
+ * holds sorted, non-overlapping day intervals with a rate and a fixed fee.
+ * Pricing is two binary searches (amount band, then day interval) over arrays built once,
+ * so no BigDecimal constants are created per call.
+ *
+ * Fee = amount * rate + fixedFee, rounded HALF_UP to 2 decimals.
+ *
+ * Rejections are precomputed too: every way the table can refuse a transfer has one shared
+ * {@link FeeResult}, so {@link #price} answers both outcomes without allocating or throwing.
+ */
+public final class FeeSchedule {
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private static final String OUT_OF_RANGE_MESSAGE = "No tax rule applies for the given amount/date combination";
+
+    private static final FeeResult NOT_POSITIVE =
+            FeeResult.rejected(FeeRejection.AMOUNT_NOT_POSITIVE, null, "Amount must be greater than 0");
+    private static final FeeResult IN_PAST =
+            FeeResult.rejected(FeeRejection.DATE_IN_PAST, null, "Scheduled date cannot be in the past");
+    private static final FeeResult OUT_OF_RANGE =
+            FeeResult.rejected(FeeRejection.AMOUNT_OUT_OF_RANGE, null, OUT_OF_RANGE_MESSAGE);
+
+    private final String version;
+
+    // bands ordenadas pelo limite superior; null no último = sem limite
+    private final Band[] bands;
+    private final BigDecimal[] upperBounds;
+    private final long[] upperBoundsCents;
+
+    private FeeSchedule(String version, List<Band> bands) {
+        this.version = version;
+        this.bands = bands.toArray(new Band[0]);
+        this.upperBounds = new BigDecimal[this.bands.length];
+        this.upperBoundsCents = new long[this.bands.length];
+
+        for (int i = 0; i < this.bands.length; i++) {
+            BigDecimal upper = this.bands[i].upperBound;
+            upperBounds[i] = upper;
+            upperBoundsCents[i] = upper == null ? Long.MAX_VALUE : toCentsFloor(upper);
+        }
+    }
+
+    public static Builder builder(String version) {
+        return new Builder(version);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Same table under another version label.
+     */
+    public FeeSchedule withVersion(String newVersion) {
+        return new FeeSchedule(Objects.requireNonNull(newVersion, "version is required"), Arrays.asList(bands));
+    }
+
+    /**
+     * Fee for the given amount and scheduled date, relative to {@code today}.
+     */
+    public BigDecimal calculateFee(BigDecimal amount, LocalDate scheduledDate, LocalDate today) {
+        return price(amount, scheduledDate, today).feeOrThrow();
+    }
+
+    /**
+     * Fee for the given amount scheduled {@code days} days from today.
+     * Throws FeeRejectedException (a BusinessException) when the amount is not positive, the date is in the past
+     * or no rule of the matching band covers the number of days.
+     */
+    public BigDecimal calculateFee(BigDecimal amount, long days) {
+        return price(amount, days).feeOrThrow();
+    }
+
+    /**
+     * Like {@link #calculateFee(BigDecimal, LocalDate, LocalDate)}, but a rejection is returned instead of thrown.
+     */
+    public FeeResult price(BigDecimal amount, LocalDate scheduledDate, LocalDate today) {
+        Objects.requireNonNull(amount, "amount is required");
+        Objects.requireNonNull(scheduledDate, "scheduledDate is required");
+
+        return price(amount, scheduledDate.toEpochDay() - today.toEpochDay());
+    }
+
+    /**
+     * Fee (and tier) for the given amount scheduled {@code days} days from today, or the shared
+     * rejection result when the table refuses it.
+     */
+    public FeeResult price(BigDecimal amount, long days) {
+        Objects.requireNonNull(amount, "amount is required");
+
+        if (amount.signum() <= 0) {
+            return NOT_POSITIVE;
+        }
+        if (days < 0) {
+            return IN_PAST;
+        }
+
+        int index = bandIndex(amount);
+        if (index >= bands.length) {
+            return OUT_OF_RANGE;
+        }
+        Band band = bands[index];
+        Rule rule = band.findRule(days);
+        if (rule == null) {
+            return band.noRule;
+        }
+        return FeeResult.priced(rule.apply(amount), band.tier);
+    }
+
+    /**
+     * The rule of every band for a fixed number of days. Whoever prices many amounts for the same
+     * date (quotes) can resolve this once and skip the day search on each call.
+     */
+    public DayRates forDays(long days) {
+        Rule[] resolved = new Rule[bands.length];
+        if (days >= 0) {
+            for (int i = 0; i < bands.length; i++) {
+                resolved[i] = bands[i].findRule(days);
+            }
+        }
+        return new DayRates(days, resolved);
+    }
+
+    /**
+     * Fixed-point fast path: amount and result in cents.
+     * Gives the same result as {@link #calculateFee(BigDecimal, long)} for amounts with up to 2 decimals.
+     */
+    public long calculateFeeCents(long amountCents, long days) {
+        if (amountCents <= 0) {
+            throw NOT_POSITIVE.toException();
+        }
+        if (days < 0) {
+            throw IN_PAST.toException();
+        }
+
+        Band band = findBand(amountCents);
+        Rule rule = band.findRule(days);
+        if (rule == null) {
+            throw band.noRule.toException();
+        }
+        return rule.applyCents(amountCents);
+    }
+
+    /**
+     * Tier label of the amount band the amount falls in, or null when no band covers it.
+     */
+    public String tierOf(BigDecimal amount) {
+        int index = bandIndex(amount);
+        return index < bands.length ? bands[index].tier : null;
+    }
+
+    private int bandIndex(BigDecimal amount) {
+        int lo = 0;
+        int hi = bands.length - 1;
+
+        // primeira band com amount <= upperBound
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            BigDecimal upper = upperBounds[mid];
+            if (upper == null || amount.compareTo(upper) <= 0) {
+                hi = mid - 1;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    private Band findBand(long amountCents) {
+        int lo = 0;
+        int hi = bands.length - 1;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (amountCents <= upperBoundsCents[mid]) {
+                hi = mid - 1;
+            } else {
+                lo = mid + 1;
+            }
+        }
+
+        if (lo >= bands.length) {
+            throw OUT_OF_RANGE.toException();
+        }
+        return bands[lo];
+    }
+
+    // amountCents <= floor(bound * 100) <=> amount <= bound, para valores em cêntimos
+    private static long toCentsFloor(BigDecimal value) {
+        return value.setScale(2, RoundingMode.FLOOR).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Rules resolved by {@link #forDays(long)}; null where the band has no rule for those days.
+     */
+    public final class DayRates {
+
+        private final long days;
+        private final Rule[] rules;
+
+        private DayRates(long days, Rule[] rules) {
+            this.days = days;
+            this.rules = rules;
+        }
+
+        public long getDays() {
+            return days;
+        }
+
+        public FeeSchedule getSchedule() {
+            return FeeSchedule.this;
+        }
+
+        /**
+         * Same result as {@link FeeSchedule#price(BigDecimal, long)} for these days.
+         */
+        public FeeResult price(BigDecimal amount) {
+            Objects.requireNonNull(amount, "amount is required");
+
+            if (amount.signum() <= 0) {
+                return NOT_POSITIVE;
+            }
+            if (days < 0) {
+                return IN_PAST;
+            }
+
+            int index = bandIndex(amount);
+            if (index >= bands.length) {
+                return OUT_OF_RANGE;
+            }
+            Rule rule = rules[index];
+            if (rule == null) {
+                return bands[index].noRule;
+            }
+            return FeeResult.priced(rule.apply(amount), bands[index].tier);
+        }
+    }
+
+    private static final class Band {
+
+        private final String tier;
+        private final BigDecimal upperBound;
+        // rejeição partilhada quando nenhum intervalo cobre os dias
+        private final FeeResult noRule;
+
+        private final long[] minDays;
+        private final long[] maxDays;
+        private final Rule[] rules;
+
+        private Band(String tier, BigDecimal upperBound, String rejectionMessage, List<Rule> rules) {
+            this.tier = tier;
+            this.upperBound = upperBound;
+            this.noRule = FeeResult.rejected(FeeRejection.NO_RULE_FOR_DAYS, tier, rejectionMessage);
+            this.rules = rules.toArray(new Rule[0]);
+            this.minDays = new long[this.rules.length];
+            this.maxDays = new long[this.rules.length];
+
+            for (int i = 0; i < this.rules.length; i++) {
+                minDays[i] = this.rules[i].minDays;
+                maxDays[i] = this.rules[i].maxDays;
+            }
+        }
+
+        // null quando nenhum intervalo cobre os dias
+        private Rule findRule(long days) {
+            // último intervalo com minDays <= days
+            int lo = 0;
+            int hi = minDays.length - 1;
+            int found = -1;
+
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (minDays[mid] <= days) {
+                    found = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+
+            if (found < 0 || days > maxDays[found]) {
+                return null;
+            }
+            return rules[found];
+        }
+    }
+
+    private static final class Rule {
+
+        private final long minDays;
+        private final long maxDays;
+        private final BigDecimal rate;
+        private final BigDecimal fixedFee;
+
+        // rate = rateUnscaled / 10^rateScale ; fixedFee em cêntimos
+        private final long rateUnscaled;
+        private final int rateScale;
+        private final long fixedFeeCents;
+        private final boolean centsExact;
+        private final long maxExactAmountCents;
+
+        private Rule(long minDays, long maxDays, BigDecimal rate, BigDecimal fixedFee) {
+            this.minDays = minDays;
+            this.maxDays = maxDays;
+            this.rate = rate;
+            this.fixedFee = fixedFee.signum() == 0 ? null : fixedFee;
+
+            BigDecimal normalizedRate = rate.stripTrailingZeros();
+            int scale = Math.max(normalizedRate.scale(), 0);
+            boolean exact = scale < POW10.length
+                    && normalizedRate.signum() >= 0
+                    && normalizedRate.unscaledValue().bitLength() < 32
+                    && fixedFee.stripTrailingZeros().scale() <= 2;
+
+            this.centsExact = exact;
+            this.rateScale = exact ? scale : 0;
+            this.rateUnscaled = exact ? normalizedRate.movePointRight(scale).longValueExact() : 0L;
+            this.fixedFeeCents = exact ? fixedFee.movePointRight(2).longValueExact() : 0L;
+
+            // acima disto amountCents * rateUnscaled (+ arredondamento) não cabe num long
+            this.maxExactAmountCents = rateUnscaled == 0
+                    ? Long.MAX_VALUE
+                    : (Long.MAX_VALUE - POW10[rateScale]) / rateUnscaled;
+        }
+
+        private BigDecimal apply(BigDecimal amount) {
+            BigDecimal fee = amount.multiply(rate);
+            if (fixedFee != null) {
+                fee = fee.add(fixedFee);
+            }
+            return fee.setScale(2, RoundingMode.HALF_UP);
+        }
+
+        private long applyCents(long amountCents) {
+            if (centsExact && amountCents <= maxExactAmountCents) {
+                long divisor = POW10[rateScale];
+                // HALF_UP para valores positivos
+                return (amountCents * rateUnscaled + divisor / 2) / divisor + fixedFeeCents;
+            }
+            BigDecimal fee = apply(BigDecimal.valueOf(amountCents, 2));
+            return fee.unscaledValue().longValueExact();
+        }
+    }
+
+    public static final class Builder {
+
+        private final String version;
+        private final List<BandSpec> bands = new ArrayList<>();
+        private BandSpec current;
+
+        private Builder(String version) {
+            this.version = Objects.requireNonNull(version, "version is required");
+        }
+
+        /**
+         * Starts a new amount band covering amounts up to {@code upperBound} (inclusive; null = no limit).
+         * The lower bound is the previous band's upper bound (exclusive).
+         */
+        public Builder band(String tier, BigDecimal upperBound, String rejectionMessage) {
+            current = new BandSpec(tier, upperBound, rejectionMessage);
+            bands.add(current);
+            return this;
+        }
+
+        /**
+         * Adds a day interval [minDays, maxDays] to the current band (maxDays = null means no limit).
+         */
+        public Builder rule(long minDays, Long maxDays, BigDecimal rate, BigDecimal fixedFee) {
+            if (current == null) {
+                throw new IllegalStateException("band(...) must be called before rule(...)");
+            }
+            current.rules.add(new Rule(minDays, maxDays == null ? Long.MAX_VALUE : maxDays,
+                    Objects.requireNonNull(rate, "rate is required"),
+                    fixedFee == null ? BigDecimal.ZERO : fixedFee));
+            return this;
+        }
+
+        public FeeSchedule build() {
+            if (bands.isEmpty()) {
+                throw new IllegalStateException("Fee schedule " + version + " has no bands");
+            }
+
+            List<BandSpec> sorted = new ArrayList<>(bands);
+            sorted.sort(Comparator.comparing((BandSpec b) -> b.upperBound,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+
+            List<Band> compiled = new ArrayList<>(sorted.size());
+            for (int i = 0; i < sorted.size(); i++) {
+                BandSpec spec = sorted.get(i);
+                if (spec.upperBound == null && i != sorted.size() - 1) {
+                    throw new IllegalStateException("Only one band of " + version + " can be unbounded");
+                }
+                if (i > 0 && spec.upperBound != null && spec.upperBound.compareTo(sorted.get(i - 1).upperBound) == 0) {
+                    throw new IllegalStateException("Duplicate band upper bound " + spec.upperBound + " in " + version);
+                }
+
+                List<Rule> rules = new ArrayList<>(spec.rules);
+                rules.sort(Comparator.comparingLong(r -> r.minDays));
+                for (int r = 0; r < rules.size(); r++) {
+                    Rule rule = rules.get(r);
+                    if (rule.minDays < 0 || rule.maxDays < rule.minDays) {
+                        throw new IllegalStateException("Invalid day interval in tier " + spec.tier + " of " + version);
+                    }
+                    if (r > 0 && rule.minDays <= rules.get(r - 1).maxDays) {
+                        throw new IllegalStateException("Overlapping day intervals in tier " + spec.tier + " of " + version);
+                    }
+                }
+
+                compiled.add(new Band(spec.tier, spec.upperBound, spec.rejectionMessage, rules));
+            }
+
+            return new FeeSchedule(version, compiled);
+        }
+    }
+
+    private static final class BandSpec {
+
+        private final String tier;
+        private final BigDecimal upperBound;
+        private final String rejectionMessage;
+        private final List<Rule> rules = new ArrayList<>();
+
+        private BandSpec(String tier, BigDecimal upperBound, String rejectionMessage) {
+            this.tier = Objects.requireNonNull(tier, "tier is required");
+            this.upperBound = upperBound;
+            this.rejectionMessage = rejectionMessage != null
+                    ? rejectionMessage
+                    : OUT_OF_RANGE_MESSAGE;
+        }
+    }
+}
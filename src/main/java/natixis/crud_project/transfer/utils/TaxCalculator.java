@@ -1,19 +1,52 @@
 package natixis.crud_project.transfer.utils;
 
-import natixis.crud_project.transfer.exceptions.BusinessException;
-
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 public final class TaxCalculator {
 
+    private static final BigDecimal LIMIT_A = new BigDecimal("1000.00");
+    private static final BigDecimal LIMIT_B = new BigDecimal("2000.00");
+
+    private static final BigDecimal FIXED_A = new BigDecimal("3.00");
+    private static final BigDecimal RATE_A = new BigDecimal("0.03");
+    private static final BigDecimal RATE_B = new BigDecimal("0.09");
+    private static final BigDecimal RATE_C_11_20 = new BigDecimal("0.082");
+    private static final BigDecimal RATE_C_21_30 = new BigDecimal("0.069");
+    private static final BigDecimal RATE_C_31_40 = new BigDecimal("0.047");
+    private static final BigDecimal RATE_C_OVER_40 = new BigDecimal("0.017");
+
+    /*Taxa A (valor da transferencia entre 0€ e 1000€)
+    *- Data do Agendamento igual Data Atual - 3% do valor da transação + 3€
+    *Taxa B (valor da transferencia entre 1001€ e 2000€)
+    *- Data de agendamento entre 1 e 10 dias da data atual - 9%
+    *Taxa C (valor da transferencia maior que 2000€)
+    *- Data de agendamento entre 11 e 20 dias da data atual - 8.2% do valor da transação
+    *        - Data de agendamento entre 21 e 30 dias da data atual - 6.9% do valor da transação
+    *        - Data de agendamento entre 31 e 40 dias da data atual - 4.7% do valor da transação
+    *        - Data de agendamento maior que 40 dias da data atual - 1.7% do valor da transação
+    */
+    private static final FeeSchedule DEFAULT_SCHEDULE = FeeSchedule.builder("default")
+            .band("A", LIMIT_A, "No tax rule applies for amount <= 1000 when scheduled date is not today")
+            .rule(0, 0L, RATE_A, FIXED_A)
+            .band("B", LIMIT_B, "No tax rule applies for amount in (1000,2000] with the given scheduled date")
+            .rule(1, 10L, RATE_B, null)
+            .band("C", null, "No tax rule applies for amount > 2000 with the given scheduled date")
+            .rule(11, 20L, RATE_C_11_20, null)
+            .rule(21, 30L, RATE_C_21_30, null)
+            .rule(31, 40L, RATE_C_31_40, null)
+            .rule(41, null, RATE_C_OVER_40, null)
+            .build();
+
+    // Snapshot imutável trocado atomicamente no reload; leitores nunca bloqueiam
+    private static final AtomicReference<FeeSchedule> CURRENT = new AtomicReference<>(DEFAULT_SCHEDULE);
+
     private TaxCalculator() {}
 
     /**
-     * Calculate fee according to the rules:
+     * Calculate fee with the current fee schedule. The default schedule applies the rules:
      * - Tax A: amount <= 1000 and scheduledDate == today -> 3% of amount + 3€
      * - Tax B: amount > 1000 and amount <= 2000 and days between scheduledDate and today in [1..10] -> 9% of amount
      * - Tax C: amount > 2000:
@@ -23,66 +56,55 @@ public final class TaxCalculator {
      *     >40 days -> 1.7%
      *
      * If no rule applies -> throws BusinessException
+     * The table can be replaced at runtime (see FeeScheduleService).
      */
     public static BigDecimal calculateFee(BigDecimal amount, LocalDate scheduledDate) {
-        Objects.requireNonNull(amount, "amount is required");
-        Objects.requireNonNull(scheduledDate, "scheduledDate is required");
+        return calculateFee(amount, scheduledDate, LocalDate.now());
+    }
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new BusinessException("Amount must be greater than 0");
-        }
+    /**
+     * Same as {@link #calculateFee(BigDecimal, LocalDate)} with an explicit "today",
+     * so bulk paths can resolve the current date once per batch.
+     */
+    public static BigDecimal calculateFee(BigDecimal amount, LocalDate scheduledDate, LocalDate today) {
+        return CURRENT.get().calculateFee(amount, scheduledDate, today);
+    }
 
-        LocalDate today = LocalDate.now();
-        long days = ChronoUnit.DAYS.between(today, scheduledDate);
+    /**
+     * Same as {@link #calculateFee(BigDecimal, LocalDate, LocalDate)}, but returns the rejection instead of throwing it.
+     */
+    public static FeeResult price(BigDecimal amount, LocalDate scheduledDate, LocalDate today) {
+        return CURRENT.get().price(amount, scheduledDate, today);
+    }
 
-        if (scheduledDate.isBefore(today)) {
-            throw new BusinessException("Scheduled date cannot be in the past");
-        }
+    /**
+     * Fixed-point variant: amount and fee in cents (long), no BigDecimal on the fast path.
+     */
+    public static long calculateFeeCents(long amountCents, LocalDate scheduledDate, LocalDate today) {
+        Objects.requireNonNull(scheduledDate, "scheduledDate is required");
 
-        /*Taxa A (valor da transferencia entre 0€ e 1000€)
-        *- Data do Agendamento igual Data Atual - 3% do valor da transação + 3€
-        */
-        if (amount.compareTo(new BigDecimal("1000.00")) <= 0) {
-            if (days == 0) {
-                BigDecimal fee = amount.multiply(new BigDecimal("0.03")).add(new BigDecimal("3.00"));
-                return fee.setScale(2, RoundingMode.HALF_UP);
-            } else {
-                throw new BusinessException("No tax rule applies for amount <= 1000 when scheduled date is not today");
-            }
-        }
+        return CURRENT.get().calculateFeeCents(amountCents, scheduledDate.toEpochDay() - today.toEpochDay());
+    }
 
-        /*Taxa B (valor da transferencia entre 1001€ e 2000€)
-        *- Data de agendamento entre 1 e 10 dias da data atual - 9%
-        */
-        if (amount.compareTo(new BigDecimal("1000.00")) > 0 && amount.compareTo(new BigDecimal("2000.00")) <= 0) {
-            if (days >= 1 && days <= 10) {
-                BigDecimal fee = amount.multiply(new BigDecimal("0.09"));
-                return fee.setScale(2, RoundingMode.HALF_UP);
-            } else {
-                throw new BusinessException("No tax rule applies for amount in (1000,2000] with the given scheduled date");
-            }
-        }
+    /**
+     * The built-in A/B/C table, used until a configured schedule is installed.
+     */
+    public static FeeSchedule defaultSchedule() {
+        return DEFAULT_SCHEDULE;
+    }
 
-        /*Taxa C (valor da transferencia maior que 2000€)
-        *- Data de agendamento entre 11 e 20 dias da data atual - 8.2% do valor da transação
-        *        - Data de agendamento entre 21 e 30 dias da data atual - 6.9% do valor da transação
-        *        - Data de agendamento entre 31 e 40 dias da data atual - 4.7% do valor da transação
-        *        - Data de agendamento maior que 40 dias da data atual - 1.7% do valor da transação
-        */
-        if (amount.compareTo(new BigDecimal("2000.00")) > 0) {
-            if (days >= 11 && days <= 20) {
-                return amount.multiply(new BigDecimal("0.082")).setScale(2, RoundingMode.HALF_UP);
-            } else if (days >= 21 && days <= 30) {
-                return amount.multiply(new BigDecimal("0.069")).setScale(2, RoundingMode.HALF_UP);
-            } else if (days >= 31 && days <= 40) {
-                return amount.multiply(new BigDecimal("0.047")).setScale(2, RoundingMode.HALF_UP);
-            } else if (days > 40) {
-                return amount.multiply(new BigDecimal("0.017")).setScale(2, RoundingMode.HALF_UP);
-            } else {
-                throw new BusinessException("No tax rule applies for amount > 2000 with the given scheduled date");
-            }
-        }
+    /**
+     * The schedule currently used for pricing. Callers that need the fee and the
+     * version that produced it should read this once and use the returned snapshot.
+     */
+    public static FeeSchedule currentSchedule() {
+        return CURRENT.get();
+    }
 
-        throw new BusinessException("No tax rule applies for the given amount/date combination");
+    /**
+     * Atomically replaces the schedule used for pricing; in-flight calls finish with the previous snapshot.
+     */
+    public static void install(FeeSchedule schedule) {
+        CURRENT.set(Objects.requireNonNull(schedule, "schedule is required"));
     }
 }
@@ -0,0 +1,209 @@
+package natixis.crud_project.transfer.utils;
+
+import natixis.crud_project.transfer.dto.TransactionRequest;
+import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.dto.TransactionStatementPage;
+import natixis.crud_project.transfer.models.TransactionStatus;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+
+import static natixis.crud_project.transfer.utils.TransactionBinaryWriter.*;
+
+/**
+ * Reads the records written by {@link TransactionBinaryWriter}, one at a time, reusing one buffer.
+ * Bytes after the last known field of a record are skipped. A length prefix beyond the largest
+ * valid record is rejected before anything is allocated for it.
+ */
+public final class TransactionBinaryReader {
+
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private final InputStream in;
+    private byte[] record = new byte[256];
+    private int position;
+    private int length;
+
+    public TransactionBinaryReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Next response record, or null at the end of the body.
+     */
+    public TransactionResponse readResponse() throws IOException {
+        if (!nextRecord()) {
+            return null;
+        }
+        int mask = getShort();
+
+        TransactionResponse t = new TransactionResponse();
+        if ((mask & ID) != 0) {
+            t.setId(getLong());
+        }
+        if ((mask & ORIGIN) != 0) {
+            t.setOriginAccount(getText());
+        }
+        if ((mask & DESTINATION) != 0) {
+            t.setDestinationAccount(getText());
+        }
+        if ((mask & AMOUNT) != 0) {
+            t.setAmount(Cents.toAmount(getLong()));
+        }
+        if ((mask & SCHEDULED_DATE) != 0) {
+            t.setScheduledDate(LocalDate.ofEpochDay(getInt()));
+        }
+        if ((mask & FEE) != 0) {
+            t.setFee(Cents.toAmount(getLong()));
+        }
+        if ((mask & FEE_SCHEDULE_VERSION) != 0) {
+            t.setFeeScheduleVersion(getText());
+        }
+        if ((mask & CREATED_AT) != 0) {
+            t.setCreatedAt(getTimestamp());
+        }
+        if ((mask & VERSION) != 0) {
+            t.setVersion(getLong());
+        }
+        if ((mask & STATUS) != 0) {
+            int ordinal = getByte();
+            if (ordinal >= STATUSES.length) {
+                throw new IOException("Unknown transaction status " + ordinal);
+            }
+            t.setStatus(STATUSES[ordinal]);
+        }
+        if ((mask & EXECUTED_AT) != 0) {
+            t.setExecutedAt(getTimestamp());
+        }
+        return t;
+    }
+
+    /**
+     * Next request record, or null at the end of the body. Fields a request does not have are ignored.
+     */
+    public TransactionRequest readRequest() throws IOException {
+        TransactionResponse t = readResponse();
+        if (t == null) {
+            return null;
+        }
+        return new TransactionRequest(t.getOriginAccount(), t.getDestinationAccount(), t.getAmount(),
+                t.getScheduledDate());
+    }
+
+    public Long readCursor() throws IOException {
+        int present = in.read();
+        if (present < 0) {
+            throw new EOFException("Missing page cursor");
+        }
+        if (present == 0) {
+            return null;
+        }
+        readFully(8);
+        return getLong();
+    }
+
+    /**
+     * A whole statement page body: the (date, id) cursor, then every record.
+     */
+    public TransactionStatementPage readStatementPage() throws IOException {
+        int present = in.read();
+        if (present < 0) {
+            throw new EOFException("Missing page cursor");
+        }
+        TransactionStatementPage page = new TransactionStatementPage(new ArrayList<>(), null, null);
+        if (present != 0) {
+            readFully(12);
+            page.setNextDate(LocalDate.ofEpochDay(getInt()));
+            page.setNextId(getLong());
+        }
+        for (TransactionResponse t = readResponse(); t != null; t = readResponse()) {
+            page.getItems().add(t);
+        }
+        return page;
+    }
+
+    private boolean nextRecord() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return false;
+        }
+        readFully(3);
+        int size = (first << 24) | ((record[0] & 0xFF) << 16) | ((record[1] & 0xFF) << 8) | (record[2] & 0xFF);
+        // o comprimento vem do cliente: validado antes de alocar o buffer
+        if (size < 2 || size > MAX_RECORD_LENGTH) {
+            throw new IOException("Invalid record length " + size);
+        }
+        if (size > record.length) {
+            record = new byte[Math.max(size, record.length * 2)];
+        }
+        readFully(size);
+        return true;
+    }
+
+    private void readFully(int size) throws IOException {
+        int read = 0;
+        while (read < size) {
+            int n = in.read(record, read, size - read);
+            if (n < 0) {
+                throw new EOFException("Truncated record");
+            }
+            read += n;
+        }
+        position = 0;
+        length = size;
+    }
+
+    private LocalDateTime getTimestamp() throws IOException {
+        long micros = getLong();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private String getText() throws IOException {
+        int size = getShort();
+        require(size);
+        String value = new String(record, position, size, StandardCharsets.UTF_8);
+        position += size;
+        return value;
+    }
+
+    private int getByte() throws IOException {
+        require(1);
+        return record[position++] & 0xFF;
+    }
+
+    private int getShort() throws IOException {
+        require(2);
+        return ((record[position++] & 0xFF) << 8) | (record[position++] & 0xFF);
+    }
+
+    private int getInt() throws IOException {
+        require(4);
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (record[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    private long getLong() throws IOException {
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (record[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    private void require(int bytes) throws IOException {
+        if (position + bytes > length) {
+            throw new EOFException("Record ends inside a field");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package natixis.crud_project.transfer.utils;
+
+import natixis.crud_project.transfer.dto.TransactionRequest;
+import natixis.crud_project.transfer.dto.TransactionResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Writes transactions in the compact binary wire format ({@value #MEDIA_TYPE}).
+ *
+ * A body is a sequence of records, each an int byte length followed by the fields; a page body
+ * starts with its cursor (a statement page with its date and id). Fields are big-endian and preceded by a short bitmask of the ones present:
+ * amounts and fees as long cents, dates as int epoch days, timestamps as long epoch microseconds
+ * (the LocalDateTime read as UTC), status as its ordinal byte and text as a short length plus UTF-8.
+ * New fields are only ever appended, and readers skip bytes they do not know, so a record can grow
+ * without breaking older clients. One buffer is reused for every record, like {@link TransactionLineWriter}.
+ */
+public final class TransactionBinaryWriter {
+
+    public static final String MEDIA_TYPE = "application/x-transfer-binary";
+
+    // bits da máscara de campos presentes de uma TransactionResponse, pela ordem em que são escritos
+    static final int ID = 1;
+    static final int ORIGIN = 1 << 1;
+    static final int DESTINATION = 1 << 2;
+    static final int AMOUNT = 1 << 3;
+    static final int SCHEDULED_DATE = 1 << 4;
+    static final int FEE = 1 << 5;
+    static final int FEE_SCHEDULE_VERSION = 1 << 6;
+    static final int CREATED_AT = 1 << 7;
+    static final int VERSION = 1 << 8;
+    static final int STATUS = 1 << 9;
+    static final int EXECUTED_AT = 1 << 10;
+
+    // o maior registo que este formato produz: máscara, campos fixos e os três textos com 65535 bytes;
+    // quem acrescentar um campo sobe este limite, senão os leitores recusam os registos novos
+    static final int MAX_RECORD_LENGTH = 2 + 8 + 3 * (2 + 0xFFFF) + 8 + 4 + 8 + 8 + 8 + 1 + 8;
+
+    private final OutputStream out;
+    private byte[] record = new byte[256];
+    private int length;
+
+    public TransactionBinaryWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public void write(TransactionResponse t) throws IOException {
+        length = 0;
+        int mask = (t.getId() != null ? ID : 0)
+                | (t.getOriginAccount() != null ? ORIGIN : 0)
+                | (t.getDestinationAccount() != null ? DESTINATION : 0)
+                | (t.getAmount() != null ? AMOUNT : 0)
+                | (t.getScheduledDate() != null ? SCHEDULED_DATE : 0)
+                | (t.getFee() != null ? FEE : 0)
+                | (t.getFeeScheduleVersion() != null ? FEE_SCHEDULE_VERSION : 0)
+                | (t.getCreatedAt() != null ? CREATED_AT : 0)
+                | (t.getVersion() != null ? VERSION : 0)
+                | (t.getStatus() != null ? STATUS : 0)
+                | (t.getExecutedAt() != null ? EXECUTED_AT : 0);
+        putShort(mask);
+
+        if (t.getId() != null) {
+            putLong(t.getId());
+        }
+        putText(t.getOriginAccount());
+        putText(t.getDestinationAccount());
+        putCents(t.getAmount());
+        putDate(t.getScheduledDate());
+        putCents(t.getFee());
+        putText(t.getFeeScheduleVersion());
+        putTimestamp(t.getCreatedAt());
+        if (t.getVersion() != null) {
+            putLong(t.getVersion());
+        }
+        if (t.getStatus() != null) {
+            // ordinal: novos estados só podem ser acrescentados no fim do enum
+            ensure(1);
+            record[length++] = (byte) t.getStatus().ordinal();
+        }
+        putTimestamp(t.getExecutedAt());
+
+        flushRecord();
+    }
+
+    /**
+     * Same layout as a response record, with only originAccount, destinationAccount, amount and scheduledDate.
+     */
+    public void write(TransactionRequest r) throws IOException {
+        length = 0;
+        int mask = (r.getOriginAccount() != null ? ORIGIN : 0)
+                | (r.getDestinationAccount() != null ? DESTINATION : 0)
+                | (r.getAmount() != null ? AMOUNT : 0)
+                | (r.getScheduledDate() != null ? SCHEDULED_DATE : 0);
+        putShort(mask);
+
+        putText(r.getOriginAccount());
+        putText(r.getDestinationAccount());
+        putCents(r.getAmount());
+        putDate(r.getScheduledDate());
+
+        flushRecord();
+    }
+
+    /**
+     * Page header: a presence byte, then the cursor when there is one.
+     */
+    public void writeCursor(Long cursor) throws IOException {
+        length = 0;
+        ensure(9);
+        record[length++] = (byte) (cursor == null ? 0 : 1);
+        if (cursor != null) {
+            putLong(cursor);
+        }
+        out.write(record, 0, length);
+    }
+
+    /**
+     * Statement page header: a presence byte, then the scheduledDate (int epoch day) and id of the cursor.
+     */
+    public void writeCursor(LocalDate date, Long id) throws IOException {
+        length = 0;
+        ensure(13);
+        boolean present = date != null && id != null;
+        record[length++] = (byte) (present ? 1 : 0);
+        if (present) {
+            putDate(date);
+            putLong(id);
+        }
+        out.write(record, 0, length);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void flushRecord() throws IOException {
+        out.write(length >>> 24);
+        out.write(length >>> 16);
+        out.write(length >>> 8);
+        out.write(length);
+        out.write(record, 0, length);
+    }
+
+    private void putCents(BigDecimal value) {
+        if (value != null) {
+            putLong(Cents.of(value));
+        }
+    }
+
+    private void putDate(LocalDate value) {
+        if (value != null) {
+            putInt((int) value.toEpochDay());
+        }
+    }
+
+    private void putTimestamp(LocalDateTime value) {
+        if (value != null) {
+            putLong(value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000);
+        }
+    }
+
+    private void putText(String value) {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Text field longer than 65535 bytes");
+        }
+        putShort(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, record, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void putShort(int value) {
+        ensure(2);
+        record[length++] = (byte) (value >>> 8);
+        record[length++] = (byte) value;
+    }
+
+    private void putInt(int value) {
+        ensure(4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            record[length++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void putLong(long value) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            record[length++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (length + bytes > record.length) {
+            record = Arrays.copyOf(record, Math.max(record.length * 2, length + bytes));
+        }
+    }
+}
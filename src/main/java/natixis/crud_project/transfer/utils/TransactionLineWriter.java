@@ -0,0 +1,225 @@
+package natixis.crud_project.transfer.utils;
+
+import natixis.crud_project.transfer.dto.TransactionChangeResponse;
+import natixis.crud_project.transfer.dto.TransactionResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes transactions one line at a time (NDJSON or CSV) straight to a Writer.
+ * A single StringBuilder is reused for every line, so streaming millions of rows
+ * does not allocate a JSON tree or a growing buffer per row.
+ */
+public final class TransactionLineWriter {
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(256);
+
+    public TransactionLineWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeNdjson(TransactionResponse t) throws IOException {
+        line.setLength(0);
+        appendTransaction(t);
+        line.append('\n');
+
+        out.append(line);
+    }
+
+    /**
+     * One change feed entry, with the transaction nested under "transaction".
+     */
+    public void writeNdjson(TransactionChangeResponse c) throws IOException {
+        line.setLength(0);
+        line.append('{');
+        appendField("position", c.getPosition());
+        line.append(',');
+        appendField("type", c.getType() == null ? null : c.getType().name());
+        line.append(',');
+        appendField("changedAt", c.getChangedAt());
+        line.append(',');
+        appendName("transaction");
+        if (c.getTransaction() == null) {
+            line.append("null");
+        } else {
+            appendTransaction(c.getTransaction());
+        }
+        line.append("}\n");
+
+        out.append(line);
+    }
+
+    private void appendTransaction(TransactionResponse t) {
+        line.append('{');
+        appendField("id", t.getId());
+        line.append(',');
+        appendField("originAccount", t.getOriginAccount());
+        line.append(',');
+        appendField("destinationAccount", t.getDestinationAccount());
+        line.append(',');
+        appendField("amount", t.getAmount());
+        line.append(',');
+        appendField("scheduledDate", t.getScheduledDate());
+        line.append(',');
+        appendField("fee", t.getFee());
+        line.append(',');
+        appendField("feeScheduleVersion", t.getFeeScheduleVersion());
+        line.append(',');
+        appendField("createdAt", t.getCreatedAt());
+        line.append(',');
+        appendField("version", t.getVersion());
+        line.append(',');
+        appendField("status", t.getStatus() == null ? null : t.getStatus().name());
+        line.append(',');
+        appendField("executedAt", t.getExecutedAt());
+        line.append('}');
+    }
+
+    public static final String CSV_HEADER = "id,originAccount,destinationAccount,amount,scheduledDate,fee,"
+            + "feeScheduleVersion,createdAt,version,status,executedAt\n";
+
+    public void writeCsvHeader() throws IOException {
+        out.append(CSV_HEADER);
+    }
+
+    /**
+     * One RFC 4180 row in the column order of {@link #CSV_HEADER}; null values are empty cells.
+     */
+    public void writeCsv(TransactionResponse t) throws IOException {
+        line.setLength(0);
+        appendCell(t.getId() == null ? null : t.getId().toString());
+        line.append(',');
+        appendQuoted(t.getOriginAccount());
+        line.append(',');
+        appendQuoted(t.getDestinationAccount());
+        line.append(',');
+        appendCell(t.getAmount() == null ? null : t.getAmount().toPlainString());
+        line.append(',');
+        if (t.getScheduledDate() != null) {
+            DateTimeFormatter.ISO_LOCAL_DATE.formatTo(t.getScheduledDate(), line);
+        }
+        line.append(',');
+        appendCell(t.getFee() == null ? null : t.getFee().toPlainString());
+        line.append(',');
+        appendQuoted(t.getFeeScheduleVersion());
+        line.append(',');
+        if (t.getCreatedAt() != null) {
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(t.getCreatedAt(), line);
+        }
+        line.append(',');
+        appendCell(t.getVersion() == null ? null : t.getVersion().toString());
+        line.append(',');
+        appendCell(t.getStatus() == null ? null : t.getStatus().name());
+        line.append(',');
+        if (t.getExecutedAt() != null) {
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(t.getExecutedAt(), line);
+        }
+        line.append('\n');
+
+        out.append(line);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void appendCell(String value) {
+        if (value != null) {
+            line.append(value);
+        }
+    }
+
+    // texto livre (contas, versão da tabela): só leva aspas quando precisa
+    private void appendQuoted(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void appendName(String name) {
+        line.append('"').append(name).append("\":");
+    }
+
+    private void appendField(String name, Long value) {
+        appendName(name);
+        line.append(value == null ? "null" : value.toString());
+    }
+
+    private void appendField(String name, LocalDate value) {
+        appendName(name);
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        DateTimeFormatter.ISO_LOCAL_DATE.formatTo(value, line);
+        line.append('"');
+    }
+
+    private void appendField(String name, LocalDateTime value) {
+        appendName(name);
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(value, line);
+        line.append('"');
+    }
+
+    private void appendField(String name, BigDecimal value) {
+        appendName(name);
+        line.append(value == null ? "null" : value.toPlainString());
+    }
+
+    private void appendField(String name, String value) {
+        appendName(name);
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
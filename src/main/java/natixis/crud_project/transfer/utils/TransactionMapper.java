@@ -1,8 +1,14 @@
 package natixis.crud_project.transfer.utils;
 
+import natixis.crud_project.transfer.dto.TransactionChangeResponse;
+import natixis.crud_project.transfer.dto.TransactionPatchRequest;
 import natixis.crud_project.transfer.dto.TransactionRequest;
 import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.models.ChangeType;
 import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionChange;
+
+import java.time.LocalDateTime;
 
 public final class TransactionMapper {
 
@@ -19,6 +25,17 @@ public final class TransactionMapper {
     }
 
 
+    // campos a null ficam por alterar
+    public static Transaction toEntity(TransactionPatchRequest dto) {
+        Transaction t = new Transaction();
+        t.setOriginAccount(dto.getOriginAccount());
+        t.setDestinationAccount(dto.getDestinationAccount());
+        t.setAmount(dto.getAmount());
+        t.setScheduledDate(dto.getScheduledDate());
+        return t;
+    }
+
+
     public static TransactionResponse toResponse(Transaction t) {
         TransactionResponse dto = new TransactionResponse();
         dto.setId(t.getId());
@@ -27,7 +44,48 @@ public final class TransactionMapper {
         dto.setAmount(t.getAmount());
         dto.setScheduledDate(t.getScheduledDate());
         dto.setFee(t.getFee());
+        dto.setFeeScheduleVersion(t.getFeeScheduleVersion());
         dto.setCreatedAt(t.getCreatedAt());
+        dto.setVersion(t.getVersion());
+        dto.setStatus(t.getStatus());
+        dto.setExecutedAt(t.getExecutedAt());
         return dto;
     }
+
+
+    // fotografia da transação no momento da alteração
+    public static TransactionChange toChange(ChangeType type, Transaction t, LocalDateTime changedAt) {
+        TransactionChange c = new TransactionChange();
+        c.setType(type);
+        c.setTransactionId(t.getId());
+        c.setChangedAt(changedAt);
+        c.setOriginAccount(t.getOriginAccount());
+        c.setDestinationAccount(t.getDestinationAccount());
+        c.setAmount(t.getAmount());
+        c.setScheduledDate(t.getScheduledDate());
+        c.setFee(t.getFee());
+        c.setFeeScheduleVersion(t.getFeeScheduleVersion());
+        c.setCreatedAt(t.getCreatedAt());
+        c.setVersion(t.getVersion());
+        c.setStatus(t.getStatus());
+        c.setExecutedAt(t.getExecutedAt());
+        return c;
+    }
+
+
+    public static TransactionChangeResponse toResponse(TransactionChange c) {
+        TransactionResponse dto = new TransactionResponse();
+        dto.setId(c.getTransactionId());
+        dto.setOriginAccount(c.getOriginAccount());
+        dto.setDestinationAccount(c.getDestinationAccount());
+        dto.setAmount(c.getAmount());
+        dto.setScheduledDate(c.getScheduledDate());
+        dto.setFee(c.getFee());
+        dto.setFeeScheduleVersion(c.getFeeScheduleVersion());
+        dto.setCreatedAt(c.getCreatedAt());
+        dto.setVersion(c.getVersion());
+        dto.setStatus(c.getStatus());
+        dto.setExecutedAt(c.getExecutedAt());
+        return new TransactionChangeResponse(c.getPosition(), c.getType(), c.getChangedAt(), dto);
+    }
 }
@@ -0,0 +1,79 @@
+package natixis.crud_project.transfer.utils;
+
+import natixis.crud_project.transfer.dto.TransactionRequest;
+import natixis.crud_project.transfer.models.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The constraints of {@link TransactionRequest}, checked in code for paths that do not go
+ * through request binding (file import, batch create, quotes, partial updates). Messages match the annotations.
+ */
+public final class TransactionValidator {
+
+    private static final String REQUIRED = "transaction is required";
+
+    private TransactionValidator() {}
+
+    /**
+     * @return the violated constraints, empty when the request is valid
+     */
+    public static List<String> validate(TransactionRequest request) {
+        // um elemento null num batch JSON
+        if (request == null) {
+            return List.of(REQUIRED);
+        }
+        return validate(request.getOriginAccount(), request.getDestinationAccount(), request.getAmount(),
+                request.getScheduledDate());
+    }
+
+    /**
+     * Same constraints, on a transaction that was mapped from a request.
+     */
+    public static List<String> validate(Transaction t) {
+        if (t == null) {
+            return List.of(REQUIRED);
+        }
+        return validate(t.getOriginAccount(), t.getDestinationAccount(), t.getAmount(), t.getScheduledDate());
+    }
+
+    /**
+     * Constraints of a partial update: only the fields present are checked, with the same messages.
+     */
+    public static List<String> validatePatch(Transaction changes) {
+        List<String> errors = new ArrayList<>(2);
+        if (changes.getOriginAccount() != null && changes.getOriginAccount().isBlank()) {
+            errors.add("originAccount is required");
+        }
+        if (changes.getDestinationAccount() != null && changes.getDestinationAccount().isBlank()) {
+            errors.add("destinationAccount is required");
+        }
+        if (changes.getAmount() != null && changes.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            errors.add("amount must be greater than zero");
+        }
+        return errors;
+    }
+
+    private static List<String> validate(String originAccount, String destinationAccount, BigDecimal amount,
+                                         LocalDate scheduledDate) {
+        List<String> errors = new ArrayList<>(2);
+        if (originAccount == null || originAccount.isBlank()) {
+            errors.add("originAccount is required");
+        }
+        if (destinationAccount == null || destinationAccount.isBlank()) {
+            errors.add("destinationAccount is required");
+        }
+        if (amount == null) {
+            errors.add("amount is required");
+        } else if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            errors.add("amount must be greater than zero");
+        }
+        if (scheduledDate == null) {
+            errors.add("scheduledDate is required");
+        }
+        return errors;
+    }
+}
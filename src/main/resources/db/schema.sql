@@ -0,0 +1,113 @@
+-- Esquema usado pelo perfil prod (ddl-auto: none). Deve acompanhar as entidades em models.
+-- Sequências com increment igual ao allocationSize do @SequenceGenerator (pooled optimizer).
+
+create sequence if not exists transactions_seq start with 1 increment by 50;
+create sequence if not exists idempotency_keys_seq start with 1 increment by 50;
+create sequence if not exists import_jobs_seq start with 1 increment by 1;
+create sequence if not exists transaction_changes_seq start with 1 increment by 50;
+
+create table if not exists transactions (
+    id                   bigint         not null,
+    origin_account       varchar(255),
+    destination_account  varchar(255),
+    amount               numeric(19, 2) not null,
+    scheduled_date       date,
+    fee                  numeric(19, 2),
+    fee_schedule_version varchar(64),
+    created_at           timestamp(6),
+    version              bigint,
+    status               varchar(16)    not null,
+    executed_at          timestamp(6),
+    claimed_at           timestamp(6),
+    attempts             integer        not null,
+    next_attempt_at      timestamp(6),
+    last_error           varchar(255),
+    primary key (id)
+);
+
+create index if not exists idx_transactions_origin_date on transactions (origin_account, scheduled_date);
+create index if not exists idx_transactions_destination_date on transactions (destination_account, scheduled_date);
+create index if not exists idx_transactions_scheduled_date on transactions (scheduled_date);
+create index if not exists idx_transactions_status_date on transactions (status, scheduled_date);
+
+create table if not exists idempotency_keys (
+    id                   bigint         not null,
+    idempotency_key      varchar(128)   not null,
+    transaction_id       bigint         not null,
+    request_hash         varchar(64)    not null,
+    created_at           timestamp(6)   not null,
+    origin_account       varchar(255),
+    destination_account  varchar(255),
+    amount               numeric(19, 2),
+    scheduled_date       date,
+    fee                  numeric(19, 2),
+    fee_schedule_version varchar(64),
+    primary key (id)
+);
+
+create unique index if not exists ux_idempotency_keys_key on idempotency_keys (idempotency_key);
+create index if not exists idx_idempotency_keys_created_at on idempotency_keys (created_at);
+
+create table if not exists import_jobs (
+    id             bigint      not null,
+    file_name      varchar(255),
+    stored_path    varchar(1024),
+    status         varchar(16) not null,
+    next_offset    bigint      not null,
+    lines_read     bigint      not null,
+    rejects_offset bigint      not null,
+    imported       bigint      not null,
+    rejected       bigint      not null,
+    created_at     timestamp(6),
+    updated_at     timestamp(6),
+    last_error     varchar(255),
+    primary key (id)
+);
+
+-- Arquivo: linhas movidas da tabela quente pelo TransactionArchiver, com o mesmo id.
+-- partition_month = yyyyMM de scheduled_date. Numa base com particionamento declarativo
+-- (ex.: PostgreSQL) esta tabela pode ser "partition by list (partition_month)", uma partição por mês.
+create table if not exists transactions_archive (
+    id                   bigint         not null,
+    partition_month      integer        not null,
+    origin_account       varchar(255),
+    destination_account  varchar(255),
+    amount               numeric(19, 2) not null,
+    scheduled_date       date,
+    fee                  numeric(19, 2),
+    fee_schedule_version varchar(64),
+    created_at           timestamp(6),
+    version              bigint,
+    status               varchar(16)    not null,
+    executed_at          timestamp(6),
+    last_error           varchar(255),
+    archived_at          timestamp(6),
+    primary key (id)
+);
+
+create index if not exists idx_transactions_archive_month on transactions_archive (partition_month);
+create index if not exists idx_transactions_archive_origin_date on transactions_archive (origin_account, scheduled_date);
+
+-- Outbox: um registo por create / update / delete, na mesma transação da alteração.
+-- position fica a null até o relay publicar o registo e é o cursor de GET /api/transactions/changes.
+create table if not exists transaction_changes (
+    id                   bigint         not null,
+    position             bigint,
+    type                 varchar(16)    not null,
+    transaction_id       bigint         not null,
+    changed_at           timestamp(6)   not null,
+    origin_account       varchar(255),
+    destination_account  varchar(255),
+    amount               numeric(19, 2),
+    scheduled_date       date,
+    fee                  numeric(19, 2),
+    fee_schedule_version varchar(64),
+    created_at           timestamp(6),
+    version              bigint,
+    status               varchar(16),
+    executed_at          timestamp(6),
+    primary key (id)
+);
+
+create unique index if not exists ux_transaction_changes_position on transaction_changes (position);
+create index if not exists idx_transaction_changes_changed_at on transaction_changes (changed_at);
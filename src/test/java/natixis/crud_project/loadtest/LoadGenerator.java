@@ -0,0 +1,93 @@
+package natixis.crud_project.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal closed-loop load generator: keeps {@code concurrency} requests in flight
+ * (one virtual thread each) until {@code totalRequests} have completed, and records
+ * every latency so percentiles are exact rather than bucketed.
+ */
+final class LoadGenerator {
+
+    private LoadGenerator() {}
+
+    record Result(String name, int requests, int errors, double seconds, long[] latenciesMicros) {
+
+        double throughput() {
+            return requests / seconds;
+        }
+
+        long percentile(double p) {
+            if (latenciesMicros.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100.0 * latenciesMicros.length) - 1;
+            return latenciesMicros[Math.max(0, Math.min(index, latenciesMicros.length - 1))];
+        }
+
+        static String header() {
+            return String.format("%-32s %9s %7s %10s %9s %9s %9s %9s",
+                    "scenario", "requests", "errors", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+        }
+
+        static String csvHeader() {
+            return "config,scenario,requests,errors,throughput,p50_ms,p95_ms,p99_ms,max_ms";
+        }
+
+        String csv(String config) {
+            return String.format(Locale.ROOT, "%s,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f",
+                    config, name, requests, errors, throughput(),
+                    percentile(50) / 1000.0, percentile(95) / 1000.0, percentile(99) / 1000.0,
+                    percentile(100) / 1000.0);
+        }
+
+        String row() {
+            return String.format("%-32s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                    name, requests, errors, throughput(),
+                    percentile(50) / 1000.0, percentile(95) / 1000.0, percentile(99) / 1000.0,
+                    percentile(100) / 1000.0);
+        }
+    }
+
+    /**
+     * @param request returns the HTTP status; >= 400 or an exception counts as an error
+     */
+    static Result run(String name, int concurrency, int totalRequests, Callable<Integer> request)
+            throws InterruptedException {
+
+        long[] latencies = new long[totalRequests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < totalRequests; i++) {
+                inFlight.acquire();
+                final int slot = i;
+                executor.submit(() -> {
+                    long t0 = System.nanoTime();
+                    try {
+                        if (request.call() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[slot] = (System.nanoTime() - t0) / 1_000;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        return new Result(name, totalRequests, errors.get(), seconds, latencies);
+    }
+}
@@ -0,0 +1,244 @@
+package natixis.crud_project.loadtest;
+
+import natixis.crud_project.CrudProjectApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Every TransactionController endpoint, run against the default configuration and against the prod
+ * persistence profile, on an embedded H2 database.
+ *
+ * Prints one table per configuration and appends the rows to target/load-results/persistence.csv,
+ * so runs can be compared over time. To measure a single setting, add it on top of a configuration:
+ *
+ *   ./mvnw -Pload-test test -Dtest=PersistenceLoadTest -Dload.configs=prod \
+ *       -Dload.args="--spring.jpa.properties.hibernate.jdbc.batch_size=1"
+ */
+@Tag("load")
+class PersistenceLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 200);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 5000);
+    private static final int SEED = Integer.getInteger("load.seed", 20_000);
+    private static final int BATCH_SIZE = 100;
+    private static final int ACCOUNTS = 100;
+
+    private static final Path RESULTS = Path.of("target", "load-results", "persistence.csv");
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    // configuração -> argumentos da aplicação
+    private static final Map<String, String[]> CONFIGS = new LinkedHashMap<>();
+
+    static {
+        CONFIGS.put("default", new String[] {
+                "--spring.datasource.url=jdbc:h2:mem:load-default;DB_CLOSE_DELAY=-1"});
+        CONFIGS.put("prod", new String[] {
+                "--spring.profiles.active=prod",
+                "--spring.datasource.url=jdbc:h2:mem:load-prod;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=64"});
+    }
+
+    @Test
+    void allEndpointsUnderLoad() throws Exception {
+        String[] configs = System.getProperty("load.configs", String.join(",", CONFIGS.keySet())).split(",");
+        String[] extra = argsFromProperty();
+
+        Map<String, List<LoadGenerator.Result>> results = new LinkedHashMap<>();
+        for (String config : configs) {
+            assertThat(CONFIGS).as("load.configs").containsKey(config);
+            results.put(config, runAgainstApp(config, extra));
+        }
+
+        System.out.println();
+        for (Map.Entry<String, List<LoadGenerator.Result>> entry : results.entrySet()) {
+            System.out.println("== " + entry.getKey() + (extra.length > 0 ? " " + String.join(" ", extra) : ""));
+            System.out.println(LoadGenerator.Result.header());
+            entry.getValue().forEach(result -> System.out.println(result.row()));
+            System.out.println();
+        }
+        publish(results, extra);
+
+        for (LoadGenerator.Result result : results.getOrDefault("prod", List.of())) {
+            assertThat(result.errors()).as(result.name()).isZero();
+        }
+    }
+
+    private List<LoadGenerator.Result> runAgainstApp(String config, String[] extra) throws Exception {
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=WARN"));
+        args.addAll(Arrays.asList(CONFIGS.get(config)));
+        args.addAll(Arrays.asList(extra));
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(CrudProjectApplication.class,
+                args.toArray(new String[0]))) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/transactions";
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            // leituras e escritas sobre linhas já existentes; o DELETE tem o seu próprio conjunto
+            long[] ids = seed(client, baseUrl, SEED);
+            long[] deletable = seed(client, baseUrl, REQUESTS);
+
+            List<LoadGenerator.Result> results = new ArrayList<>();
+
+            // aquecimento curto para o JIT, fora dos resultados
+            AtomicInteger warmup = new AtomicInteger();
+            LoadGenerator.run("warmup", 50, 2_000,
+                    () -> send(client, get(baseUrl + "/" + ids[warmup.getAndIncrement() % ids.length])));
+
+            results.add(scenario(client, "POST /", i -> create(baseUrl, i)));
+            results.add(scenario(client, "POST /batch (" + BATCH_SIZE + ")", i -> createBatch(baseUrl, i)));
+            results.add(scenario(client, "POST /quote", i -> HttpRequest.newBuilder(URI.create(baseUrl + "/quote"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body(i)))
+                    .build()));
+            results.add(scenario(client, "GET /{id}", i -> get(baseUrl + "/" + ids[i % ids.length])));
+            results.add(scenario(client, "GET /{id} If-None-Match", i -> HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/" + ids[i % ids.length]))
+                    .header("If-None-Match", "\"0\"")
+                    .GET().build()));
+            results.add(scenario(client, "GET / (page)", i -> get(baseUrl + "?limit=100&afterId=" + ids[i % ids.length])));
+            results.add(scenario(client, "GET /accounts/{account}", i -> get(baseUrl + "/accounts/" + account(i)
+                    + "?from=" + TODAY + "&to=" + TODAY.plusDays(60))));
+            results.add(scenario(client, "GET /accounts/{account}/exposure", i -> get(baseUrl + "/accounts/"
+                    + account(i) + "/exposure")));
+            results.add(scenario(client, "GET /due", i -> get(baseUrl + "/due?limit=100&date=" + date(i))));
+            results.add(scenario(client, "GET /stream", i -> get(baseUrl + "/stream?account=" + account(i))));
+            results.add(scenario(client, "GET /export (1 day, csv)", i -> get(baseUrl + "/export?format=csv&from="
+                    + date(i) + "&to=" + date(i))));
+            results.add(scenario(client, "PUT /{id}", i -> HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/" + ids[i % ids.length]))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body(i)))
+                    .build()));
+            results.add(scenario(client, "PATCH /{id}", i -> HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/" + ids[i % ids.length]))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"destinationAccount\":\"" + account(i + 1) + "\"}"))
+                    .build()));
+            results.add(scenario(client, "DELETE /{id}", i -> HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/" + deletable[i]))
+                    .DELETE().build()));
+
+            return results;
+        }
+    }
+
+    private static LoadGenerator.Result scenario(HttpClient client, String name, IntFunction<HttpRequest> request)
+            throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        Callable<Integer> call = () -> send(client, request.apply(counter.getAndIncrement()));
+        return LoadGenerator.run(name, CONCURRENCY, REQUESTS, call);
+    }
+
+    private static int send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static long[] seed(HttpClient client, String baseUrl, int count) throws Exception {
+        long[] ids = new long[count];
+        int filled = 0;
+        for (int i = 0; filled < count; i++) {
+            HttpResponse<String> response = client.send(createBatch(baseUrl, i), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+            Matcher matcher = ID.matcher(response.body());
+            while (filled < count && matcher.find()) {
+                ids[filled++] = Long.parseLong(matcher.group(1));
+            }
+        }
+        return ids;
+    }
+
+    private static HttpRequest create(String baseUrl, int i) {
+        return HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body(i)))
+                .build();
+    }
+
+    private static HttpRequest createBatch(String baseUrl, int i) {
+        StringBuilder json = new StringBuilder("[");
+        for (int n = 0; n < BATCH_SIZE; n++) {
+            if (n > 0) {
+                json.append(',');
+            }
+            json.append(body(i * BATCH_SIZE + n));
+        }
+        json.append(']');
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.toString()))
+                .build();
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    // tier C (11 a 60 dias): todas as datas têm regra de taxa
+    private static String body(int i) {
+        return "{\"originAccount\":\"" + account(i) + "\",\"destinationAccount\":\"" + account(i + 7)
+                + "\",\"amount\":" + (2500 + i % 1000) + ",\"scheduledDate\":\"" + date(i) + "\"}";
+    }
+
+    private static String account(int i) {
+        return "PT" + (5000 + Math.floorMod(i, ACCOUNTS));
+    }
+
+    private static LocalDate date(int i) {
+        return TODAY.plusDays(11 + Math.floorMod(i, 50));
+    }
+
+    private static String[] argsFromProperty() {
+        String value = System.getProperty("load.args", "").trim();
+        return value.isEmpty() ? new String[0] : value.split("\\s+");
+    }
+
+    private static void publish(Map<String, List<LoadGenerator.Result>> results, String[] extra) throws IOException {
+        Files.createDirectories(RESULTS.getParent());
+        boolean header = !Files.exists(RESULTS);
+
+        StringBuilder csv = new StringBuilder();
+        if (header) {
+            csv.append(LoadGenerator.Result.csvHeader()).append('\n');
+        }
+        for (Map.Entry<String, List<LoadGenerator.Result>> entry : results.entrySet()) {
+            String config = extra.length > 0 ? entry.getKey() + " " + String.join(" ", extra) : entry.getKey();
+            for (LoadGenerator.Result result : entry.getValue()) {
+                csv.append(result.csv(config.replace(',', ';'))).append('\n');
+            }
+        }
+        Files.writeString(RESULTS, csv, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        System.out.println("Results appended to " + RESULTS.toAbsolutePath());
+    }
+}
@@ -0,0 +1,100 @@
+package natixis.crud_project.loadtest;
+
+import natixis.crud_project.CrudProjectApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Same mixed create/get workload against the app with platform threads and with virtual threads.
+ * Run with: ./mvnw -Pload-test test -Dtest=VirtualThreadsLoadTest [-Dload.concurrency=5000 -Dload.requests=50000]
+ */
+@Tag("load")
+class VirtualThreadsLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 2000);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 20000);
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @Test
+    void compareVirtualThreadsOnAndOff() throws Exception {
+        LoadGenerator.Result platform = runAgainstApp(false);
+        LoadGenerator.Result virtual = runAgainstApp(true);
+
+        System.out.println();
+        System.out.println(LoadGenerator.Result.header());
+        System.out.println(platform.row());
+        System.out.println(virtual.row());
+
+        // em modo virtual os pedidos ficam em fila em vez de serem rejeitados
+        assertThat(virtual.errors()).isZero();
+    }
+
+    private LoadGenerator.Result runAgainstApp(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(CrudProjectApplication.class,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN")) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/transactions";
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            long seededId = seed(client, baseUrl);
+            AtomicInteger counter = new AtomicInteger();
+
+            // aquecimento curto para o JIT
+            LoadGenerator.run(mode + " warmup", 50, 2_000, () -> createOrGet(client, baseUrl, seededId, counter));
+
+            return LoadGenerator.run("create+get, " + mode + " threads", CONCURRENCY, REQUESTS,
+                    () -> createOrGet(client, baseUrl, seededId, counter));
+        }
+    }
+
+    private static int createOrGet(HttpClient client, String baseUrl, long seededId, AtomicInteger counter)
+            throws Exception {
+        HttpRequest request = counter.incrementAndGet() % 2 == 0
+                ? HttpRequest.newBuilder(URI.create(baseUrl + "/" + seededId)).GET().build()
+                : createRequest(baseUrl);
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static long seed(HttpClient client, String baseUrl) throws Exception {
+        HttpResponse<String> response = client.send(createRequest(baseUrl), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = ID.matcher(response.body());
+        assertThat(matcher.find()).as("created id in %s", response.body()).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    static HttpRequest createRequest(String baseUrl) {
+        String body = "{\"originAccount\":\"PT5000\",\"destinationAccount\":\"PT6000\","
+                + "\"amount\":1500,\"scheduledDate\":\"" + LocalDate.now().plusDays(5) + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package natixis.crud_project.transfer.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class)
+            .withBean(DataSource.class, () -> mock(DataSource.class));
+
+    @Test
+    @DisplayName("platform-thread mode should keep the plain DataSource and the Tomcat defaults")
+    void platformThreads_shouldRegisterNothing() {
+        runner.withPropertyValues("spring.threads.virtual.enabled=false").run(context -> {
+            assertThat(context.getBean(DataSource.class)).isNotInstanceOf(ConnectionGateDataSource.class);
+            assertThat(context).doesNotHaveBean(VirtualThreadConfig.TomcatConnectionLimits.class);
+        });
+    }
+
+    @Test
+    @DisplayName("virtual-thread mode should gate the DataSource and raise the Tomcat connection limits")
+    void virtualThreads_shouldGateDataSource() {
+        runner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(ConnectionGateDataSource.class);
+            assertThat(context).hasSingleBean(VirtualThreadConfig.TomcatConnectionLimits.class);
+        });
+    }
+}
@@ -0,0 +1,187 @@
+package natixis.crud_project.transfer.controllers;
+
+import natixis.crud_project.transfer.config.BinaryWireConfig;
+import natixis.crud_project.transfer.dto.TransactionBatchItem;
+import natixis.crud_project.transfer.dto.TransactionBatchResponse;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import natixis.crud_project.transfer.services.FeeQuoteService;
+import natixis.crud_project.transfer.services.TransactionExportService;
+import natixis.crud_project.transfer.services.TransactionService;
+import natixis.crud_project.transfer.utils.TransactionBinaryWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringJUnitWebConfig(TransactionControllerTest.WebConfig.class)
+class TransactionControllerTest {
+
+    // o MVC com os conversores por omissão e o BinaryWireConfig, como na aplicação
+    @Configuration
+    @EnableWebMvc
+    @Import({BinaryWireConfig.class, TransactionController.class})
+    static class WebConfig {
+
+        @Bean
+        TransactionService transactionService() {
+            return mock(TransactionService.class);
+        }
+
+        @Bean
+        TransactionExportService transactionExportService() {
+            return mock(TransactionExportService.class);
+        }
+
+        @Bean
+        FeeQuoteService feeQuoteService() {
+            return mock(FeeQuoteService.class);
+        }
+    }
+
+    private static final String UPDATE_BODY = """
+            {"originAccount":"PT1","destinationAccount":"PT2","amount":100.00,"scheduledDate":"2099-01-05"}
+            """;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private TransactionService service;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        reset(service);
+        mvc = MockMvcBuilders.webAppContextSetup(context).build();
+        when(service.findIncludingArchive(1L)).thenReturn(Optional.of(transfer()));
+    }
+
+    @Test
+    @DisplayName("GET /{id} without Accept should answer JSON")
+    void get_withoutAccept_shouldAnswerJson() throws Exception {
+        mvc.perform(get("/api/transactions/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /{id} with Accept */* should answer JSON")
+    void get_withWildcardAccept_shouldAnswerJson() throws Exception {
+        mvc.perform(get("/api/transactions/1").header(HttpHeaders.ACCEPT, MediaType.ALL_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("GET /{id} with Accept application/x-transfer-binary should answer the binary format")
+    void get_withBinaryAccept_shouldAnswerBinary() throws Exception {
+        mvc.perform(get("/api/transactions/1").header(HttpHeaders.ACCEPT, TransactionBinaryWriter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TransactionBinaryWriter.MEDIA_TYPE));
+    }
+
+    @Test
+    @DisplayName("GET /stream without Accept should stream NDJSON")
+    void stream_withoutAccept_shouldStreamNdjson() throws Exception {
+        MvcResult result = mvc.perform(get("/api/transactions/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+    }
+
+    @Test
+    @DisplayName("GET /stream with Accept application/x-transfer-binary should stream binary records")
+    void stream_withBinaryAccept_shouldStreamBinary() throws Exception {
+        MvcResult result = mvc.perform(get("/api/transactions/stream")
+                        .header(HttpHeaders.ACCEPT, TransactionBinaryWriter.MEDIA_TYPE + ", application/json"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TransactionBinaryWriter.MEDIA_TYPE));
+    }
+
+    @Test
+    @DisplayName("POST /batch with a null item should pass it to the service instead of failing")
+    void createBatch_withNullItem_shouldReachTheService() throws Exception {
+        when(service.createBatch(anyList())).thenReturn(new TransactionBatchResponse(0, 1, List.of(
+                new TransactionBatchItem(0, TransactionBatchItem.REJECTED, null, "transaction is required"))));
+
+        mvc.perform(post("/api/transactions/batch").contentType(MediaType.APPLICATION_JSON).content("[null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(TransactionBatchItem.REJECTED));
+
+        verify(service).createBatch(Collections.singletonList(null));
+    }
+
+    @Test
+    @DisplayName("PUT with a weak If-Match tag should match no version")
+    void update_withWeakIfMatch_shouldMatchNoVersion() throws Exception {
+        mvc.perform(put("/api/transactions/1").header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY));
+
+        verify(service).update(eq(1L), any(Transaction.class), eq(Set.of()));
+    }
+
+    @Test
+    @DisplayName("PUT with an If-Match list should accept each strong tag")
+    void update_withIfMatchList_shouldAcceptEachEntry() throws Exception {
+        mvc.perform(put("/api/transactions/1").header(HttpHeaders.IF_MATCH, "\"3\", W/\"4\", \"5\"")
+                .contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY));
+
+        verify(service).update(eq(1L), any(Transaction.class), eq(Set.of(3L, 5L)));
+    }
+
+    @Test
+    @DisplayName("PUT with If-Match * should accept any version")
+    void update_withWildcardIfMatch_shouldAcceptAnyVersion() throws Exception {
+        mvc.perform(put("/api/transactions/1").header(HttpHeaders.IF_MATCH, "*")
+                .contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY));
+
+        verify(service).update(eq(1L), any(Transaction.class), isNull());
+    }
+
+    private static Transaction transfer() {
+        Transaction t = new Transaction();
+        t.setId(1L);
+        t.setOriginAccount("PT1");
+        t.setDestinationAccount("PT2");
+        t.setAmount(new BigDecimal("100.00"));
+        t.setScheduledDate(LocalDate.of(2025, 12, 5));
+        t.setFee(new BigDecimal("3.00"));
+        t.setCreatedAt(LocalDateTime.of(2025, 12, 5, 9, 0));
+        t.setVersion(0L);
+        t.setStatus(TransactionStatus.SCHEDULED);
+        return t;
+    }
+}
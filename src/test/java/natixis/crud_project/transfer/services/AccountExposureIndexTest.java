@@ -0,0 +1,78 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.dto.AccountDayTotal;
+import natixis.crud_project.transfer.dto.AccountExposure;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AccountExposureIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 11, 20);
+
+    private final AccountExposureIndex index = new AccountExposureIndex();
+
+    @Test
+    @DisplayName("summary() should add the loaded totals and later deltas within the date range")
+    void summary_shouldCombineLoadAndDeltas() {
+        index.load(() -> List.of(
+                new AccountDayTotal("PT1", DAY, 2L, new BigDecimal("3000.00"), new BigDecimal("270.00")),
+                new AccountDayTotal("PT1", DAY.plusDays(40), 1L, new BigDecimal("5000.00"), null)));
+
+        Transaction added = transfer("PT1", DAY.plusDays(1), "100.00", "6.00");
+        index.added(added);
+
+        AccountExposure exposure = index.summary("PT1", DAY, DAY.plusDays(30));
+
+        assertThat(exposure.getCount()).isEqualTo(3);
+        assertThat(exposure.getAmount()).isEqualByComparingTo("3100.00");
+        assertThat(exposure.getFees()).isEqualByComparingTo("276.00");
+        assertThat(exposure.getDays()).extracting(AccountDayTotal::getScheduledDate)
+                .containsExactly(DAY, DAY.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("replaced() and removed() should move totals between buckets and drop empty days")
+    void replacedAndRemoved_shouldMoveTotals() {
+        Transaction before = transfer("PT1", DAY, "100.00", "6.00");
+        Transaction after = transfer("PT1", DAY.plusDays(2), "150.00", "7.50");
+        index.added(before);
+
+        index.replaced(before, after);
+        AccountExposure moved = index.summary("PT1", DAY, DAY.plusDays(5));
+        assertThat(moved.getDays()).extracting(AccountDayTotal::getScheduledDate).containsExactly(DAY.plusDays(2));
+        assertThat(moved.getFees()).isEqualByComparingTo("7.50");
+
+        index.removed(after);
+        assertThat(index.summary("PT1", DAY, DAY.plusDays(5)).getCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("failed transfers should not count towards exposure")
+    void failed_shouldBeIgnored() {
+        Transaction failed = transfer("PT1", DAY, "100.00", "6.00");
+        failed.setStatus(TransactionStatus.FAILED);
+
+        index.added(failed);
+
+        assertThat(index.summary("PT1", DAY, DAY).getCount()).isZero();
+        assertThat(index.summary("UNKNOWN", DAY, DAY).getAmount()).isEqualByComparingTo("0");
+    }
+
+    private static Transaction transfer(String origin, LocalDate date, String amount, String fee) {
+        Transaction t = new Transaction();
+        t.setOriginAccount(origin);
+        t.setDestinationAccount("DST");
+        t.setScheduledDate(date);
+        t.setAmount(new BigDecimal(amount));
+        t.setFee(new BigDecimal(fee));
+        return t;
+    }
+}
@@ -0,0 +1,141 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.dto.AccountDayTotal;
+import natixis.crud_project.transfer.exceptions.BusinessException;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AccountLedgerTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Test
+    @DisplayName("reserve() should hold amounts up to the daily limit and reject the one that goes over")
+    void reserve_shouldEnforceDailyLimit() {
+        AccountLedger ledger = ledger("1000.00");
+
+        ledger.reserve(transfer("PT1", TODAY, "600.00"));
+        ledger.reserve(transfer("PT1", TODAY, "400.00"));
+
+        assertThatThrownBy(() -> ledger.reserve(transfer("PT1", TODAY, "0.01")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("PT1");
+        // outra conta e outro dia têm limites próprios
+        ledger.reserve(transfer("PT2", TODAY, "1000.00"));
+        ledger.reserve(transfer("PT1", TODAY.plusDays(1), "1000.00"));
+
+        assertThat(ledger.held("PT1", TODAY)).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    @DisplayName("concurrent reservations on one account should never hold more than the daily limit")
+    void reserve_concurrent_shouldNeverExceedLimit() throws Exception {
+        AccountLedger ledger = ledger("1000.00");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    ledger.reserve(transfer("PT1", TODAY, "7.00"));
+                    return true;
+                } catch (BusinessException ex) {
+                    return false;
+                }
+            }));
+        }
+
+        start.countDown();
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(10, TimeUnit.SECONDS)) {
+                accepted++;
+            }
+        }
+        pool.shutdown();
+
+        // 142 * 7.00 = 994.00; a 143.ª passaria o limite
+        assertThat(accepted).isEqualTo(142);
+        assertThat(ledger.held("PT1", TODAY)).isEqualByComparingTo("994.00");
+    }
+
+    @Test
+    @DisplayName("replace() should check only the increase on the same day and move the hold across days")
+    void replace_shouldMoveHold() {
+        AccountLedger ledger = ledger("1000.00");
+        Transaction before = transfer("PT1", TODAY, "900.00");
+        ledger.reserve(before);
+
+        ledger.replace(before, transfer("PT1", TODAY, "1000.00"));
+        assertThat(ledger.held("PT1", TODAY)).isEqualByComparingTo("1000.00");
+
+        assertThatThrownBy(() -> ledger.replace(before, transfer("PT1", TODAY, "1100.00")))
+                .isInstanceOf(BusinessException.class);
+
+        Transaction moved = transfer("PT1", TODAY.plusDays(1), "1000.00");
+        ledger.replace(transfer("PT1", TODAY, "1000.00"), moved);
+        assertThat(ledger.held("PT1", TODAY)).isEqualByComparingTo("0.00");
+        assertThat(ledger.held("PT1", TODAY.plusDays(1))).isEqualByComparingTo("1000.00");
+
+        ledger.revert(transfer("PT1", TODAY, "1000.00"), moved);
+        assertThat(ledger.held("PT1", TODAY)).isEqualByComparingTo("1000.00");
+        assertThat(ledger.held("PT1", TODAY.plusDays(1))).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    @DisplayName("load() should keep today onwards from the stored totals, and failed transfers should not count")
+    void load_shouldKeepStoredTotalsFromToday() {
+        AccountLedger ledger = ledger("1000.00");
+        ledger.load(List.of(
+                new AccountDayTotal("PT1", TODAY.minusDays(1), 1L, new BigDecimal("500.00"), null),
+                new AccountDayTotal("PT1", TODAY, 2L, new BigDecimal("800.00"), null)), TODAY);
+
+        assertThat(ledger.held("PT1", TODAY.minusDays(1))).isEqualByComparingTo("0.00");
+        assertThatThrownBy(() -> ledger.reserve(transfer("PT1", TODAY, "300.00")))
+                .isInstanceOf(BusinessException.class);
+
+        Transaction failed = transfer("PT1", TODAY, "300.00");
+        failed.setStatus(TransactionStatus.FAILED);
+        ledger.reserve(failed);
+        assertThat(ledger.held("PT1", TODAY)).isEqualByComparingTo("800.00");
+    }
+
+    @Test
+    @DisplayName("a disabled ledger should accept everything without holding anything")
+    void disabled_shouldBeNoOp() {
+        AccountLedger ledger = new AccountLedger(false, new BigDecimal("1.00"));
+        ledger.load(List.of(new AccountDayTotal("PT1", TODAY, 1L, new BigDecimal("500.00"), null)), TODAY);
+
+        ledger.reserve(transfer("PT1", TODAY, "5000.00"));
+
+        assertThat(ledger.held("PT1", TODAY)).isEqualByComparingTo("0.00");
+    }
+
+    private AccountLedger ledger(String dailyLimit) {
+        return new AccountLedger(true, new BigDecimal(dailyLimit));
+    }
+
+    private static Transaction transfer(String origin, LocalDate scheduledDate, String amount) {
+        Transaction t = new Transaction();
+        t.setOriginAccount(origin);
+        t.setDestinationAccount("PT9");
+        t.setAmount(new BigDecimal(amount));
+        t.setScheduledDate(scheduledDate);
+        return t;
+    }
+}
@@ -0,0 +1,105 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.dto.AccountDayTotal;
+import natixis.crud_project.transfer.exceptions.BusinessException;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.repositories.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountTotalsTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private TransactionRepository repo;
+
+    @Test
+    @DisplayName("rebuild() should load the ledger and the exposure index from one query")
+    void rebuild_shouldLoadBothFromOneQuery() {
+        when(repo.sumOutgoingByAccountAndDate()).thenReturn(List.of(
+                new AccountDayTotal("PT1", TODAY, 2L, new BigDecimal("800.00"), new BigDecimal("12.00"))));
+        AccountTotals totals = totals();
+
+        totals.rebuild();
+
+        assertThat(totals.held("PT1", TODAY)).isEqualByComparingTo("800.00");
+        assertThat(totals.summary("PT1", TODAY, TODAY).getAmount()).isEqualByComparingTo("800.00");
+        assertThatThrownBy(() -> totals.reserve(transfer("300.00"))).isInstanceOf(BusinessException.class);
+        verify(repo, times(1)).sumOutgoingByAccountAndDate();
+    }
+
+    @Test
+    @DisplayName("created() should count after commit and give the hold back when the transaction rolls back")
+    void created_shouldFollowTheTransactionOutcome() {
+        AccountTotals totals = totals();
+        Transaction committed = transfer("100.00");
+        Transaction rolledBack = transfer("200.00");
+        totals.reserve(committed);
+        totals.reserve(rolledBack);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED, () -> totals.created(committed));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK, () -> totals.created(rolledBack));
+
+        assertThat(totals.held("PT1", TODAY)).isEqualByComparingTo("100.00");
+        assertThat(totals.summary("PT1", TODAY, TODAY).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("removed() should drop the transfer from both; archived() only from the exposure")
+    void removedAndArchived_shouldUpdateTheirTotals() {
+        AccountTotals totals = totals();
+        Transaction deleted = transfer("100.00");
+        Transaction archived = transfer("50.00");
+        archived.setScheduledDate(TODAY.minusDays(100));
+        totals.reserve(deleted);
+        totals.created(deleted);
+        totals.created(archived);
+
+        totals.removed(deleted);
+        totals.archived(archived);
+
+        assertThat(totals.held("PT1", TODAY)).isEqualByComparingTo("0.00");
+        assertThat(totals.held("PT1", TODAY.minusDays(100))).isEqualByComparingTo("0.00");
+        assertThat(totals.summary("PT1", TODAY.minusDays(100), TODAY).getCount()).isZero();
+    }
+
+    private AccountTotals totals() {
+        return new AccountTotals(repo, true, new BigDecimal("1000.00"));
+    }
+
+    // simula o fim de uma transação com sincronização ativa
+    private static void complete(int status, Runnable write) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            write.run();
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), status);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Transaction transfer(String amount) {
+        Transaction t = new Transaction();
+        t.setOriginAccount("PT1");
+        t.setDestinationAccount("PT9");
+        t.setAmount(new BigDecimal(amount));
+        t.setScheduledDate(TODAY);
+        return t;
+    }
+}
@@ -0,0 +1,126 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.dto.FeeQuote;
+import natixis.crud_project.transfer.dto.FeeQuoteBatchItem;
+import natixis.crud_project.transfer.dto.FeeQuoteBatchResponse;
+import natixis.crud_project.transfer.dto.TransactionRequest;
+import natixis.crud_project.transfer.exceptions.BusinessException;
+import natixis.crud_project.transfer.exceptions.FeeRejectedException;
+import natixis.crud_project.transfer.utils.FeeResult;
+import natixis.crud_project.transfer.utils.FeeSchedule;
+import natixis.crud_project.transfer.utils.TaxCalculator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FeeQuoteServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 11, 20);
+
+    private final FeeQuoteService quotes = new FeeQuoteService(60);
+
+    @AfterEach
+    void restoreDefaultSchedule() {
+        TaxCalculator.install(TaxCalculator.defaultSchedule());
+    }
+
+    @Test
+    @DisplayName("memoized quotes should match the fee schedule for every tier and day count")
+    void price_shouldMatchFeeSchedule() {
+        FeeSchedule schedule = TaxCalculator.defaultSchedule();
+        String[] amounts = {"0.01", "999.99", "1000.00", "1000.01", "1500.55", "2000.00", "2000.01", "123456.78"};
+
+        // duas passagens: a segunda lê do memo
+        for (int pass = 0; pass < 2; pass++) {
+            for (String value : amounts) {
+                BigDecimal amount = new BigDecimal(value);
+                for (long days = -2; days <= 70; days++) {
+                    FeeResult expected = schedule.price(amount, days);
+                    FeeResult actual = quotes.price(amount, TODAY.plusDays(days), TODAY);
+
+                    assertThat(actual.isRejected()).as("amount=%s days=%d", amount, days).isEqualTo(expected.isRejected());
+                    assertThat(actual.getFee()).as("amount=%s days=%d", amount, days).isEqualTo(expected.getFee());
+                    assertThat(actual.getTier()).isEqualTo(expected.getTier());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("the memo should roll over when the calendar day changes")
+    void price_shouldRollOverAtMidnight() {
+        BigDecimal amount = new BigDecimal("500.00");
+        LocalDate tomorrow = TODAY.plusDays(1);
+
+        // tier A só tem regra para o próprio dia
+        assertThat(quotes.price(amount, tomorrow, TODAY).isRejected()).isTrue();
+        assertThat(quotes.price(amount, tomorrow, tomorrow).getFee()).isEqualByComparingTo("18.00");
+    }
+
+    @Test
+    @DisplayName("the memo should roll over when a new fee schedule is installed")
+    void price_shouldRollOverOnScheduleChange() {
+        BigDecimal amount = new BigDecimal("500.00");
+        assertThat(quotes.price(amount, TODAY, TODAY).getFee()).isEqualByComparingTo("18.00");
+
+        TaxCalculator.install(FeeSchedule.builder("flat")
+                .band("F", null, null)
+                .rule(0, null, new BigDecimal("0.01"), null)
+                .build());
+
+        assertThat(quotes.price(amount, TODAY, TODAY).getFee()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    @DisplayName("quote() should return the fee, tier and schedule version")
+    void quote_shouldReturnFee() {
+        FeeQuote quote = quotes.quote(request("1500.00", LocalDate.now().plusDays(5)));
+
+        assertThat(quote.getFee()).isEqualByComparingTo("135.00");
+        assertThat(quote.getTier()).isEqualTo("B");
+        assertThat(quote.getFeeScheduleVersion()).isEqualTo(TaxCalculator.currentSchedule().getVersion());
+    }
+
+    @Test
+    @DisplayName("quote() should throw FeeRejectedException when no rule applies")
+    void quote_shouldThrowWhenRejected() {
+        assertThatThrownBy(() -> quotes.quote(request("500.00", LocalDate.now().plusDays(3))))
+                .isInstanceOf(FeeRejectedException.class);
+    }
+
+    @Test
+    @DisplayName("quoteBatch() should report invalid and rejected items without failing the others")
+    void quoteBatch_shouldReportPerItem() {
+        TransactionRequest invalid = request("100.00", LocalDate.now());
+        invalid.setOriginAccount(null);
+
+        FeeQuoteBatchResponse response = quotes.quoteBatch(List.of(
+                request("100.00", LocalDate.now()),
+                request("500.00", LocalDate.now().plusDays(3)),
+                invalid));
+
+        assertThat(response.getQuoted()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(FeeQuoteBatchItem::getStatus)
+                .containsExactly(FeeQuoteBatchItem.QUOTED, FeeQuoteBatchItem.REJECTED, FeeQuoteBatchItem.REJECTED);
+        assertThat(response.getResults().get(2).getError()).isEqualTo("originAccount is required");
+    }
+
+    @Test
+    @DisplayName("quote() should reject requests missing required fields")
+    void quote_shouldValidateRequest() {
+        assertThatThrownBy(() -> quotes.quote(new TransactionRequest("A", "B", null, LocalDate.now())))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("amount is required");
+    }
+
+    private static TransactionRequest request(String amount, LocalDate scheduledDate) {
+        return new TransactionRequest("PT5000", "PT6000", new BigDecimal(amount), scheduledDate);
+    }
+}
@@ -0,0 +1,93 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.config.FeeScheduleProperties;
+import natixis.crud_project.transfer.utils.FeeSchedule;
+import natixis.crud_project.transfer.utils.TaxCalculator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FeeScheduleServiceTest {
+
+    @AfterEach
+    void restoreDefaultSchedule() {
+        TaxCalculator.install(TaxCalculator.defaultSchedule());
+    }
+
+    @Test
+    void reloadsScheduleFromFileAndRecordsVersion(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("fees.yaml");
+        Files.writeString(file, """
+                transfer:
+                  fees:
+                    version: "flat-1"
+                    bands:
+                      - tier: FLAT
+                        rules:
+                          - { min-days: 0, rate: "0.01", fixed-fee: "1.00" }
+                """);
+
+        FeeScheduleProperties props = new FeeScheduleProperties();
+        props.setLocation(file.toUri().toString());
+        FeeScheduleService service = new FeeScheduleService(props);
+
+        service.init();
+
+        FeeSchedule current = TaxCalculator.currentSchedule();
+        assertThat(current.getVersion()).isEqualTo("flat-1");
+        // 1% de 500 = 5 + 1 fixo = 6.00
+        assertThat(TaxCalculator.calculateFee(new BigDecimal("500.00"), LocalDate.now().plusDays(3)))
+                .isEqualByComparingTo("6.00");
+    }
+
+    @Test
+    void invalidReloadKeepsPreviousSchedule(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("fees.yaml");
+        Files.writeString(file, """
+                transfer:
+                  fees:
+                    version: "v1"
+                """);
+
+        FeeScheduleProperties props = new FeeScheduleProperties();
+        props.setLocation(file.toUri().toString());
+        FeeScheduleService service = new FeeScheduleService(props);
+        service.init();
+        assertThat(TaxCalculator.currentSchedule().getVersion()).isEqualTo("v1");
+
+        // intervalos sobrepostos -> o build falha
+        Files.writeString(file, """
+                transfer:
+                  fees:
+                    version: "v2"
+                    bands:
+                      - tier: X
+                        rules:
+                          - { min-days: 0, max-days: 10, rate: "0.01" }
+                          - { min-days: 5, rate: "0.02" }
+                """);
+        file.toFile().setLastModified(System.currentTimeMillis() + 5_000);
+
+        service.reloadIfChanged();
+
+        assertThat(TaxCalculator.currentSchedule().getVersion()).isEqualTo("v1");
+    }
+
+    @Test
+    void requiresVersionWhenBandsAreConfigured() {
+        FeeScheduleProperties props = new FeeScheduleProperties();
+        FeeScheduleProperties.Band band = new FeeScheduleProperties.Band();
+        band.setTier("A");
+        props.getBands().add(band);
+
+        assertThatThrownBy(() -> FeeScheduleService.compile(props))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,125 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.config.ArchiveProperties;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import natixis.crud_project.transfer.repositories.ArchivedTransactionRepository;
+import natixis.crud_project.transfer.repositories.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiverTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2025, 6, 1);
+
+    @Mock
+    private TransactionRepository repo;
+
+    @Mock
+    private ArchivedTransactionRepository archive;
+
+    @Mock
+    private TransactionCache cache;
+
+    @Mock
+    private AccountTotals totals;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        ArchiveProperties properties = new ArchiveProperties();
+        properties.setBatchSize(2);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+
+        archiver = new TransactionArchiver(repo, archive, cache, totals, transactionTemplate, properties);
+    }
+
+    @Test
+    @DisplayName("archiveBefore() should copy and delete chunk by chunk until no row is left")
+    void archiveBefore_shouldMoveChunks() {
+        Transaction first = transfer(1L);
+        Transaction second = transfer(2L);
+        Transaction third = transfer(3L);
+        when(repo.findArchivableForUpdate(eq(TransactionArchiver.ARCHIVABLE), eq(CUTOFF), any(Limit.class)))
+                .thenReturn(List.of(first, second), List.of(third), List.of());
+        when(archive.copyFromTransactions(anyCollection(), any())).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(0).size());
+        when(repo.deleteByIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(0).size());
+
+        int moved = archiver.archiveBefore(CUTOFF);
+
+        assertThat(moved).isEqualTo(3);
+        verify(archive).copyFromTransactions(eq(List.of(1L, 2L)), any());
+        verify(repo).deleteByIds(List.of(3L));
+        verify(cache).invalidate(1L);
+        verify(cache).invalidate(3L);
+        verify(totals).archived(second);
+    }
+
+    @Test
+    @DisplayName("a chunk whose copy does not match the locked rows should fail and roll back")
+    void archiveBefore_shouldFailOnMismatch() {
+        when(repo.findArchivableForUpdate(eq(TransactionArchiver.ARCHIVABLE), eq(CUTOFF), any(Limit.class))).thenReturn(List.of(transfer(1L), transfer(2L)));
+        when(archive.copyFromTransactions(anyCollection(), any())).thenReturn(1);
+        when(repo.deleteByIds(anyCollection())).thenReturn(2);
+
+        assertThatThrownBy(() -> archiver.archiveBefore(CUTOFF)).isInstanceOf(IllegalStateException.class);
+        verify(cache, never()).invalidate(any());
+        verify(totals, never()).archived(any());
+    }
+
+    @Test
+    @DisplayName("past-due SCHEDULED and PROCESSING rows should stay in the hot table")
+    @SuppressWarnings("unchecked")
+    void archiveBefore_shouldOnlySelectTerminalStatuses() {
+        ArgumentCaptor<Collection<TransactionStatus>> statuses = ArgumentCaptor.forClass(Collection.class);
+        when(repo.findArchivableForUpdate(statuses.capture(), eq(CUTOFF), any(Limit.class))).thenReturn(List.of());
+
+        int moved = archiver.archiveBefore(CUTOFF);
+
+        assertThat(moved).isZero();
+        assertThat(statuses.getValue())
+                .containsExactlyInAnyOrder(TransactionStatus.EXECUTED, TransactionStatus.FAILED)
+                .doesNotContain(TransactionStatus.SCHEDULED, TransactionStatus.PROCESSING);
+        verify(archive, never()).copyFromTransactions(anyCollection(), any());
+        verify(repo, never()).deleteByIds(anyCollection());
+    }
+
+    private static Transaction transfer(Long id) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setOriginAccount("A");
+        t.setDestinationAccount("B");
+        t.setAmount(BigDecimal.valueOf(100));
+        t.setScheduledDate(CUTOFF.minusDays(id));
+        t.setStatus(TransactionStatus.EXECUTED);
+        return t;
+    }
+}
@@ -0,0 +1,93 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.exceptions.BusinessException;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import natixis.crud_project.transfer.repositories.TransactionExportRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 11, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 11, 30);
+
+    @Mock
+    private TransactionExportRepository exportRepo;
+
+    @InjectMocks
+    private TransactionExportService exportService;
+
+    @Test
+    @DisplayName("export() should write a CSV header and quote cells that contain separators")
+    void export_csv_shouldQuoteWhenNeeded() throws Exception {
+        givenRows("PT5000", "PT,\"6000\"");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(FROM, TO, TransactionExportService.Format.CSV, false, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,originAccount,destinationAccount,amount,scheduledDate,fee,feeScheduleVersion,createdAt,version,status,executedAt\n"
+                        + "1,PT5000,\"PT,\"\"6000\"\"\",1500.00,2025-11-20,135.00,2025.1,2025-11-01T10:00:00,0,SCHEDULED,\n");
+    }
+
+    @Test
+    @DisplayName("export() with gzip should produce a complete gzip stream of NDJSON lines")
+    void export_ndjsonGzip_shouldRoundTrip() throws Exception {
+        givenRows("PT5000", "PT6000");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(FROM, TO, TransactionExportService.Format.NDJSON, true, out);
+
+        String text;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(text).startsWith("{\"id\":1,\"originAccount\":\"PT5000\"").endsWith("\"executedAt\":null}\n");
+        assertThat(text.lines()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Format.parse() should reject unknown formats")
+    void parse_unknownFormat_shouldThrow() {
+        assertThat(TransactionExportService.Format.parse("CSV")).isEqualTo(TransactionExportService.Format.CSV);
+        assertThatThrownBy(() -> TransactionExportService.Format.parse("xml")).isInstanceOf(BusinessException.class);
+    }
+
+    private void givenRows(String origin, String destination) {
+        doAnswer(invocation -> {
+            Consumer<TransactionResponse> consumer = invocation.getArgument(2);
+            TransactionResponse row = new TransactionResponse();
+            row.setId(1L);
+            row.setOriginAccount(origin);
+            row.setDestinationAccount(destination);
+            row.setAmount(new BigDecimal("1500.00"));
+            row.setScheduledDate(LocalDate.of(2025, 11, 20));
+            row.setFee(new BigDecimal("135.00"));
+            row.setFeeScheduleVersion("2025.1");
+            row.setCreatedAt(LocalDateTime.of(2025, 11, 1, 10, 0));
+            row.setVersion(0L);
+            row.setStatus(TransactionStatus.SCHEDULED);
+            consumer.accept(row);
+            return null;
+        }).when(exportRepo).forEachScheduledBetween(eq(FROM), eq(TO), any());
+    }
+}
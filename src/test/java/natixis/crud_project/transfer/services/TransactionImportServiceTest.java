@@ -0,0 +1,160 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.config.ImportProperties;
+import natixis.crud_project.transfer.exceptions.BusinessException;
+import natixis.crud_project.transfer.models.ImportJob;
+import natixis.crud_project.transfer.models.ImportJobStatus;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.repositories.ImportJobRepository;
+import natixis.crud_project.transfer.repositories.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionImportServiceTest {
+
+    private static final String FILE = "originAccount,destinationAccount,amount,scheduledDate\n"
+            + "PT1,PT2,100.00,2030-01-10\n"
+            + ",PT2,100.00,2030-01-10\n"
+            + "PT1,PT2,abc,2030-01-10\n"
+            + "\"PT,3\",PT4,9999.00,2030-01-10\r\n"
+            + "PT5,PT6,250.50,2030-01-11\n";
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ImportJobRepository jobRepo;
+
+    @Mock
+    private TransactionRepository repo;
+
+    @Mock
+    private TransactionService service;
+
+    @Mock
+    private AccountTotals totals;
+
+    @Mock
+    private TransactionOutbox outbox;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final List<List<String>> insertedChunks = new ArrayList<>();
+
+    private ImportJob job;
+    private TransactionImportService importService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = directory.resolve("1.csv");
+        Files.writeString(file, FILE, StandardCharsets.UTF_8);
+
+        job = new ImportJob();
+        job.setId(1L);
+        job.setStoredPath(file.toString());
+
+        lenient().when(jobRepo.findById(1L)).thenAnswer(invocation -> Optional.of(job));
+        lenient().when(jobRepo.save(any(ImportJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        lenient().doAnswer(invocation -> {
+            List<Transaction> rows = invocation.getArgument(0);
+            insertedChunks.add(rows.stream().map(Transaction::getOriginAccount).toList());
+            return null;
+        }).when(repo).insertAll(anyList());
+        // fee "rejeitada" acima de 5000, como uma regra do TaxCalculator
+        lenient().when(service.prepare(any())).thenAnswer(invocation -> {
+            Transaction t = invocation.getArgument(0);
+            if (t.getAmount().compareTo(new BigDecimal("5000")) > 0) {
+                throw new BusinessException("No tax rule applies");
+            }
+            return t;
+        });
+
+        ImportProperties properties = new ImportProperties();
+        properties.setDirectory(directory.toString());
+        properties.setChunkSize(2);
+        properties.setParallelism(2);
+        importService = new TransactionImportService(jobRepo, repo, service, totals, outbox, transactionTemplate, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    @DisplayName("run() should import valid rows chunk by chunk and report rejected lines with their reason")
+    void run_shouldImportChunksAndWriteRejectReport() throws Exception {
+        importService.run(1L);
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(job.getLinesRead()).isEqualTo(6);
+        assertThat(job.getImported()).isEqualTo(2);
+        assertThat(job.getRejected()).isEqualTo(3);
+        assertThat(job.getNextOffset()).isEqualTo(FILE.getBytes(StandardCharsets.UTF_8).length);
+        // chunks de 2 linhas: [cabeçalho, PT1] [vazia, abc] [PT,3 rejeitada, PT5]
+        assertThat(insertedChunks).containsExactly(List.of("PT1"), List.of(), List.of("PT5"));
+
+        List<String> report = Files.readAllLines(importService.rejectReport(job));
+        assertThat(report).containsExactly(
+                "line,reason,content",
+                "3,\"originAccount is required\",\",PT2,100.00,2030-01-10\"",
+                "4,\"invalid amount or scheduledDate\",\"PT1,PT2,abc,2030-01-10\"",
+                "5,\"No tax rule applies\",\"\"\"PT,3\"\",PT4,9999.00,2030-01-10\"");
+    }
+
+    @Test
+    @DisplayName("run() should resume after the checkpoint and drop reject lines written after it")
+    void run_shouldResumeFromCheckpoint() throws Exception {
+        String firstChunk = "originAccount,destinationAccount,amount,scheduledDate\nPT1,PT2,100.00,2030-01-10\n";
+        String header = TransactionImportService.REJECTS_HEADER;
+        Files.writeString(importService.rejectReport(job), header + "9,\"from an uncommitted chunk\",\"x\"\n");
+
+        job.setStatus(ImportJobStatus.FAILED);
+        job.setNextOffset(firstChunk.getBytes(StandardCharsets.UTF_8).length);
+        job.setLinesRead(2);
+        job.setImported(1);
+        job.setRejectsOffset(header.length());
+
+        importService.run(1L);
+
+        assertThat(insertedChunks).containsExactly(List.of(), List.of("PT5"));
+        assertThat(job.getImported()).isEqualTo(2);
+        assertThat(job.getLinesRead()).isEqualTo(6);
+        assertThat(Files.readAllLines(importService.rejectReport(job)))
+                .hasSize(4)
+                .doesNotContain("9,\"from an uncommitted chunk\",\"x\"");
+    }
+
+    @Test
+    @DisplayName("splitCsv() should handle quoted cells with commas and doubled quotes")
+    void splitCsv_shouldHandleQuotes() {
+        assertThat(TransactionImportService.splitCsv("\"A,1\",\"say \"\"hi\"\"\",10,2030-01-01"))
+                .containsExactly("A,1", "say \"hi\"", "10", "2030-01-01");
+    }
+}
@@ -0,0 +1,104 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.config.OutboxProperties;
+import natixis.crud_project.transfer.models.ChangeType;
+import natixis.crud_project.transfer.models.TransactionChange;
+import natixis.crud_project.transfer.repositories.TransactionChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionOutboxRelayTest {
+
+    @Mock
+    private TransactionChangeRepository repo;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final List<List<Long>> published = new ArrayList<>();
+
+    private TransactionOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(2);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+
+        ChangeSink sink = changes -> published.add(changes.stream().map(TransactionChange::getPosition).toList());
+        relay = new TransactionOutboxRelay(repo, sink, transactionTemplate, properties);
+    }
+
+    @Test
+    @DisplayName("relay() should number pending records after the last published position, batch by batch")
+    void relay_shouldAssignPositionsInOrder() {
+        TransactionChange first = change(10L);
+        TransactionChange second = change(11L);
+        TransactionChange third = change(12L);
+        when(repo.findUnpublishedForUpdate(any(Limit.class)))
+                .thenReturn(List.of(first, second), List.of(third));
+        when(repo.findMaxPosition()).thenReturn(41L, 43L);
+
+        int count = relay.relay();
+
+        assertThat(count).isEqualTo(3);
+        assertThat(published).containsExactly(List.of(42L, 43L), List.of(44L));
+        assertThat(third.getPosition()).isEqualTo(44L);
+    }
+
+    @Test
+    @DisplayName("the first record ever published should get position 1")
+    void relay_emptyFeed_shouldStartAtOne() {
+        TransactionChange only = change(1L);
+        when(repo.findUnpublishedForUpdate(any(Limit.class))).thenReturn(List.of(only));
+        when(repo.findMaxPosition()).thenReturn(null);
+
+        relay.relay();
+
+        assertThat(only.getPosition()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("a failing sink should fail the batch so its positions roll back, and run() should keep going")
+    void relay_failingSink_shouldPropagate() {
+        when(repo.findUnpublishedForUpdate(any(Limit.class))).thenReturn(List.of(change(1L)));
+        when(repo.findMaxPosition()).thenReturn(null);
+        ChangeSink failing = changes -> {
+            throw new IllegalStateException("broker down");
+        };
+        TransactionOutboxRelay failingRelay = new TransactionOutboxRelay(repo, failing, transactionTemplate,
+                new OutboxProperties());
+
+        assertThatThrownBy(failingRelay::relay).isInstanceOf(IllegalStateException.class);
+        assertThatCode(failingRelay::run).doesNotThrowAnyException();
+    }
+
+    private static TransactionChange change(Long id) {
+        TransactionChange c = new TransactionChange();
+        c.setId(id);
+        c.setType(ChangeType.CREATED);
+        c.setTransactionId(id * 100);
+        c.setChangedAt(LocalDateTime.now());
+        return c;
+    }
+}
@@ -1,9 +1,24 @@
 package natixis.crud_project.transfer.services;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import natixis.crud_project.transfer.dto.TransactionBatchItem;
+import natixis.crud_project.transfer.dto.TransactionBatchResponse;
+import natixis.crud_project.transfer.dto.TransactionChangePage;
+import natixis.crud_project.transfer.dto.TransactionFilter;
+import natixis.crud_project.transfer.dto.TransactionPage;
+import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.dto.TransactionStatementPage;
 import natixis.crud_project.transfer.exceptions.BusinessException;
+import natixis.crud_project.transfer.exceptions.PreconditionFailedException;
+import natixis.crud_project.transfer.models.ArchivedTransaction;
+import natixis.crud_project.transfer.models.ChangeType;
+import natixis.crud_project.transfer.models.IdempotencyRecord;
 import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import natixis.crud_project.transfer.repositories.ArchivedTransactionRepository;
 import natixis.crud_project.transfer.repositories.TransactionRepository;
 import natixis.crud_project.transfer.utils.TaxCalculator;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,14 +26,22 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,12 +52,41 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository repo;
 
+    @Spy
+    private TransactionCache cache = new TransactionCache(100, Duration.ofMinutes(1));
+
+    @Spy
+    private TransferMetrics metrics = new TransferMetrics(new SimpleMeterRegistry());
+
+    @Mock
+    private IdempotencyStore idempotency;
+
+    @Mock
+    private AccountTotals totals;
+
+    @Mock
+    private ArchivedTransactionRepository archive;
+
+    @Mock
+    private TransactionOutbox outbox;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private TransactionService service;
 
     @Captor
     private ArgumentCaptor<Transaction> transactionCaptor;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+    }
+
     @Test
     @DisplayName("create() should set createdAt, calculate fee and save (same-day small amount)")
     void create_shouldSetCreatedAtCalculateFeeAndSave() {
@@ -81,6 +133,82 @@ class TransactionServiceTest {
                 .isInstanceOf(BusinessException.class);
 
         verify(repo, never()).save(any());
+        verify(metrics, times(1)).feeRejected(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("createBatch() should insert priced items and report rejected ones without failing the batch")
+    void createBatch_shouldReportRejectedItemsIndividually() {
+        Transaction valid = new Transaction();
+        valid.setOriginAccount("PT1");
+        valid.setDestinationAccount("PT2");
+        valid.setAmount(BigDecimal.valueOf(1500));
+        valid.setScheduledDate(LocalDate.now().plusDays(5));
+
+        Transaction rejected = new Transaction();
+        rejected.setOriginAccount("PT1");
+        rejected.setDestinationAccount("PT2");
+        rejected.setAmount(BigDecimal.valueOf(500));
+        rejected.setScheduledDate(LocalDate.now().plusDays(2)); // nenhuma regra se aplica
+
+        doAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            batch.forEach(t -> t.setId(42L));
+            return null;
+        }).when(repo).insertAll(anyList());
+
+        TransactionBatchResponse response = service.createBatch(List.of(valid, rejected));
+
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getStatus()).isEqualTo(TransactionBatchItem.CREATED);
+        assertThat(response.getResults().get(0).getTransaction().getId()).isEqualTo(42L);
+        assertThat(response.getResults().get(0).getTransaction().getFee()).isEqualByComparingTo("135.00");
+        assertThat(response.getResults().get(1).getStatus()).isEqualTo(TransactionBatchItem.REJECTED);
+        assertThat(response.getResults().get(1).getError()).isNotBlank();
+        verify(repo, times(1)).insertAll(List.of(valid));
+    }
+
+    @Test
+    @DisplayName("createBatch() should reject items with blank accounts or missing fields before pricing them")
+    void createBatch_shouldRejectInvalidItems() {
+        Transaction blankOrigin = new Transaction();
+        blankOrigin.setOriginAccount(" ");
+        blankOrigin.setDestinationAccount("PT2");
+        blankOrigin.setAmount(BigDecimal.valueOf(1500));
+        blankOrigin.setScheduledDate(LocalDate.now().plusDays(5));
+
+        Transaction missingAmount = new Transaction();
+        missingAmount.setOriginAccount("PT1");
+        missingAmount.setScheduledDate(LocalDate.now().plusDays(5));
+
+        TransactionBatchResponse response = service.createBatch(List.of(blankOrigin, missingAmount));
+
+        assertThat(response.getCreated()).isZero();
+        assertThat(response.getResults().get(0).getError()).isEqualTo("originAccount is required");
+        assertThat(response.getResults().get(1).getError())
+                .isEqualTo("destinationAccount is required; amount is required");
+        verify(totals, never()).reserve(any());
+        verify(repo).insertAll(List.of());
+    }
+
+    @Test
+    @DisplayName("createBatch() should reject a null item at its index and create the others")
+    void createBatch_shouldRejectNullItems() {
+        Transaction valid = new Transaction();
+        valid.setOriginAccount("PT1");
+        valid.setDestinationAccount("PT2");
+        valid.setAmount(BigDecimal.valueOf(1500));
+        valid.setScheduledDate(LocalDate.now().plusDays(5));
+
+        TransactionBatchResponse response = service.createBatch(Arrays.asList(null, valid));
+
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getIndex()).isZero();
+        assertThat(response.getResults().get(0).getStatus()).isEqualTo(TransactionBatchItem.REJECTED);
+        assertThat(response.getResults().get(0).getError()).isEqualTo("transaction is required");
+        assertThat(response.getResults().get(1).getStatus()).isEqualTo(TransactionBatchItem.CREATED);
+        verify(repo).insertAll(List.of(valid));
     }
 
     @Test
@@ -99,6 +227,81 @@ class TransactionServiceTest {
         verify(repo, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("listPage() should trim the look-ahead row and expose the next cursor")
+    void listPage_shouldReturnNextCursorWhenMoreRowsExist() {
+        Transaction t1 = new Transaction();
+        t1.setId(1L);
+        Transaction t2 = new Transaction();
+        t2.setId(2L);
+        Transaction t3 = new Transaction();
+        t3.setId(3L);
+        TransactionFilter filter = new TransactionFilter();
+
+        when(repo.findPage(filter, null, 3)).thenReturn(Arrays.asList(t1, t2, t3));
+
+        TransactionPage page = service.listPage(filter, null, 2);
+
+        assertThat(page.getItems()).extracting(TransactionResponse::getId).containsExactly(1L, 2L);
+        assertThat(page.getNextCursor()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("listPage() should return a null cursor on the last page")
+    void listPage_lastPage_shouldReturnNullCursor() {
+        Transaction t1 = new Transaction();
+        t1.setId(5L);
+        TransactionFilter filter = new TransactionFilter();
+
+        when(repo.findPage(filter, 4L, 3)).thenReturn(List.of(t1));
+
+        TransactionPage page = service.listPage(filter, 4L, 2);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("statement() should merge outgoing and incoming transfers by date without duplicating self-transfers")
+    void statement_shouldMergeBothSidesInDateOrder() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(30);
+
+        TransactionResponse out1 = response(1L, from.plusDays(1));
+        TransactionResponse self = response(2L, from.plusDays(3));
+        TransactionResponse in1 = response(3L, from.plusDays(2));
+
+        when(repo.findOutgoingStatement("ACC", from, 0L, to, Limit.of(101))).thenReturn(List.of(out1, self));
+        when(repo.findIncomingStatement("ACC", from, 0L, to, Limit.of(101))).thenReturn(List.of(in1, self));
+
+        TransactionStatementPage page = service.statement("ACC", from, to, null, null, 100);
+
+        assertThat(page.getItems()).extracting(TransactionResponse::getId).containsExactly(1L, 3L, 2L);
+        assertThat(page.getNextDate()).isNull();
+        assertThat(page.getNextId()).isNull();
+    }
+
+    @Test
+    @DisplayName("statement() should stop at the limit and return the (date, id) cursor of the last item")
+    void statement_shouldPageOnDateAndId() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(30);
+        LocalDate afterDate = from.plusDays(1);
+
+        TransactionResponse out1 = response(5L, afterDate);
+        TransactionResponse out2 = response(9L, from.plusDays(2));
+        TransactionResponse in1 = response(6L, afterDate);
+
+        when(repo.findOutgoingStatement("ACC", afterDate, 4L, to, Limit.of(3))).thenReturn(List.of(out1, out2));
+        when(repo.findIncomingStatement("ACC", afterDate, 4L, to, Limit.of(3))).thenReturn(List.of(in1));
+
+        TransactionStatementPage page = service.statement("ACC", from, to, afterDate, 4L, 2);
+
+        assertThat(page.getItems()).extracting(TransactionResponse::getId).containsExactly(5L, 6L);
+        assertThat(page.getNextDate()).isEqualTo(afterDate);
+        assertThat(page.getNextId()).isEqualTo(6L);
+    }
+
     @Test
     @DisplayName("findById() should return optional from repository")
     void findById_shouldReturnOptionalFromRepository() {
@@ -114,8 +317,172 @@ class TransactionServiceTest {
     }
 
     @Test
-    @DisplayName("update() should update existing entity and return saved (use valid tax input)")
-    void update_existing_shouldUpdateAndSave() {
+    @DisplayName("findById() should serve repeated reads from the cache")
+    void findById_shouldHitRepositoryOnceForRepeatedReads() {
+        Transaction t = new Transaction();
+        t.setId(11L);
+        when(repo.findById(11L)).thenReturn(Optional.of(t));
+
+        service.findById(11L);
+        Optional<Transaction> second = service.findById(11L);
+
+        assertThat(second).containsSame(t);
+        verify(repo, times(1)).findById(11L);
+    }
+
+    @Test
+    @DisplayName("create() with a known Idempotency-Key should return the original response without pricing or inserting")
+    void create_repeatedIdempotencyKey_shouldReturnOriginal() {
+        Transaction original = transfer(21L, "A", "B", LocalDate.now());
+        original.setFee(new BigDecimal("6.00"));
+        original.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        when(idempotency.find("key-1")).thenReturn(Optional.of(record("key-1", original)));
+
+        Transaction result = service.create(transfer(null, "A", "B", LocalDate.now()), "key-1");
+
+        assertThat(result.getId()).isEqualTo(21L);
+        assertThat(result.getFee()).isEqualByComparingTo("6.00");
+        assertThat(result.getCreatedAt()).isEqualTo(original.getCreatedAt());
+        assertThat(result.getVersion()).isZero();
+        // a linha atual (talvez já alterada) não é lida
+        verify(repo, never()).findById(any());
+        verify(repo, never()).save(any());
+        verify(idempotency, never()).createOnce(any(), any(), any());
+        verify(metrics, never()).feePriced(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("create() should refuse an Idempotency-Key reused with a different request")
+    void create_idempotencyKeyWithDifferentRequest_shouldThrowBusinessException() {
+        Transaction original = transfer(21L, "A", "B", LocalDate.now());
+        original.setCreatedAt(LocalDateTime.now());
+        when(idempotency.find("key-1")).thenReturn(Optional.of(record("key-1", original)));
+
+        Transaction other = transfer(null, "A", "B", LocalDate.now());
+        other.setAmount(BigDecimal.valueOf(999));
+
+        assertThatThrownBy(() -> service.create(other, "key-1"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("different request");
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("create() should return the concurrent winner when recording the Idempotency-Key hits the unique index")
+    void create_concurrentIdempotencyKey_shouldReplayWinner() {
+        Transaction winner = transfer(22L, "A", "B", LocalDate.now());
+        winner.setCreatedAt(LocalDateTime.now());
+        when(idempotency.find("key-2")).thenReturn(Optional.empty(), Optional.of(record("key-2", winner)));
+        when(idempotency.createOnce(eq("key-2"), anyString(), any()))
+                .thenThrow(new DataIntegrityViolationException("ux_idempotency_keys_key"));
+
+        Transaction result = service.create(transfer(null, "A", "B", LocalDate.now()), "key-2");
+
+        assertThat(result.getId()).isEqualTo(22L);
+        verify(idempotency, never()).remember(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("create() with a new Idempotency-Key should insert once and remember the key with the request hash")
+    void create_newIdempotencyKey_shouldInsertAndRemember() {
+        Transaction request = transfer(null, "A", "B", LocalDate.now());
+        String hash = IdempotencyStore.requestHash(request);
+        when(idempotency.find("key-3")).thenReturn(Optional.empty());
+        when(idempotency.createOnce(eq("key-3"), eq(hash), any())).thenAnswer(invocation -> {
+            Supplier<Transaction> create = invocation.getArgument(2);
+            return create.get();
+        });
+        when(repo.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction saved = invocation.getArgument(0);
+            saved.setId(23L);
+            return saved;
+        });
+
+        Transaction result = service.create(request, "key-3");
+
+        assertThat(result.getId()).isEqualTo(23L);
+        assertThat(result.getFee()).isNotNull();
+        verify(idempotency).remember("key-3", hash, result);
+    }
+
+    @Test
+    @DisplayName("update() should invalidate the cached entry so the next read sees the new fee")
+    void update_shouldInvalidateCachedEntry() {
+        Transaction existing = transfer(12L, "A", "B", LocalDate.now());
+        existing.setVersion(0L);
+
+        Transaction updated = new Transaction();
+        updated.setOriginAccount("A");
+        updated.setDestinationAccount("B");
+        updated.setAmount(BigDecimal.valueOf(200));
+        updated.setScheduledDate(LocalDate.now());
+
+        when(repo.findById(12L)).thenReturn(Optional.of(existing));
+        when(repo.updateScheduled(eq(12L), eq(0L), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        service.findById(12L);
+        service.update(12L, updated);
+        service.findById(12L);
+
+        verify(cache, times(1)).invalidate(12L);
+        // o update usa a entrada em cache; só a leitura depois da invalidação vai à base de dados
+        verify(repo, times(2)).findById(12L);
+    }
+
+    @Test
+    @DisplayName("update() with a stale expected version should fail with the current version")
+    void update_staleVersion_shouldThrowPreconditionFailed() {
+        Transaction existing = transfer(13L, "A", "B", LocalDate.now());
+        existing.setVersion(4L);
+
+        when(repo.findById(13L)).thenReturn(Optional.of(existing));
+
+        Transaction updated = transfer(null, "A", "B", LocalDate.now());
+
+        assertThatThrownBy(() -> service.update(13L, updated, Set.of(3L)))
+                .isInstanceOf(PreconditionFailedException.class)
+                .extracting("currentVersion").isEqualTo(4L);
+        // a versão guardada não é a pedida: nem chega a haver UPDATE
+        verify(repo, never()).updateScheduled(any(), any(), any(), any(), any(), any(), any(), any());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("update() should write when the stored version is one of the expected versions")
+    void update_expectedVersionList_shouldMatchAnyEntry() {
+        Transaction existing = transfer(13L, "A", "B", LocalDate.now());
+        existing.setVersion(4L);
+
+        when(repo.findById(13L)).thenReturn(Optional.of(existing));
+        when(repo.updateScheduled(eq(13L), eq(4L), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        Transaction result = service.update(13L, transfer(null, "C", "B", LocalDate.now()), Set.of(3L, 4L));
+
+        assertThat(result.getVersion()).isEqualTo(5L);
+        assertThat(result.getOriginAccount()).isEqualTo("C");
+    }
+
+    @Test
+    @DisplayName("update() should retry once with the stored version when the cached one is stale")
+    void update_staleCache_shouldRetryWithStoredVersion() {
+        Transaction cached = transfer(14L, "A", "B", LocalDate.now());
+        cached.setVersion(1L);
+        Transaction stored = transfer(14L, "A", "B", LocalDate.now());
+        stored.setVersion(2L);
+
+        when(repo.findById(14L)).thenReturn(Optional.of(cached), Optional.of(stored));
+        when(repo.updateScheduled(eq(14L), eq(1L), any(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(repo.updateScheduled(eq(14L), eq(2L), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        Transaction result = service.update(14L, transfer(null, "C", "D", LocalDate.now()));
+
+        assertThat(result.getVersion()).isEqualTo(3L);
+        assertThat(result.getOriginAccount()).isEqualTo("C");
+    }
+
+    @Test
+    @DisplayName("update() should write the new fields with one statement and return the new version")
+    void update_existing_shouldUpdateWithSingleStatement() {
         Transaction existing = new Transaction();
         existing.setId(5L);
         existing.setOriginAccount("OLD");
@@ -123,6 +490,7 @@ class TransactionServiceTest {
         existing.setAmount(BigDecimal.valueOf(100));
         existing.setScheduledDate(LocalDate.now());
         existing.setCreatedAt(LocalDateTime.now().minusDays(1));
+        existing.setVersion(7L);
 
         Transaction updated = new Transaction();
         updated.setOriginAccount("NEW");
@@ -131,8 +499,11 @@ class TransactionServiceTest {
         updated.setAmount(BigDecimal.valueOf(150));
         updated.setScheduledDate(LocalDate.now()); // valid for amount <= 1000
 
+        BigDecimal expectedFee = TaxCalculator.calculateFee(updated.getAmount(), updated.getScheduledDate());
+
         when(repo.findById(5L)).thenReturn(Optional.of(existing));
-        when(repo.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repo.updateScheduled(eq(5L), eq(7L), eq("NEW"), eq("NEW_DST"), any(), eq(updated.getScheduledDate()),
+                eq(expectedFee), any())).thenReturn(1);
 
         Transaction result = service.update(5L, updated);
 
@@ -140,17 +511,14 @@ class TransactionServiceTest {
         assertThat(result.getOriginAccount()).isEqualTo("NEW");
         assertThat(result.getDestinationAccount()).isEqualTo("NEW_DST");
         assertThat(result.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(150));
-        assertThat(result.getScheduledDate()).isEqualTo(updated.getScheduledDate());
-
-        try {
-            BigDecimal expectedFee = TaxCalculator.calculateFee(result.getAmount(), result.getScheduledDate());
-            assertThat(result.getFee()).isEqualByComparingTo(expectedFee);
-        } catch (BusinessException e) {
-            fail("TaxCalculator threw BusinessException unexpectedly: " + e.getMessage());
-        }
+        assertThat(result.getFee()).isEqualByComparingTo(expectedFee);
+        assertThat(result.getCreatedAt()).isEqualTo(existing.getCreatedAt());
+        assertThat(result.getVersion()).isEqualTo(8L);
+        // a entidade em cache não é alterada
+        assertThat(existing.getOriginAccount()).isEqualTo("OLD");
 
         verify(repo, times(1)).findById(5L);
-        verify(repo, times(1)).save(existing);
+        verify(repo, never()).save(any());
     }
 
     @Test
@@ -164,31 +532,210 @@ class TransactionServiceTest {
 
         assertThat(result).isNull();
         verify(repo, times(1)).findById(99L);
-        verify(repo, never()).save(any());
+        verify(repo, never()).updateScheduled(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("patch() should only write the given columns and keep the fee when amount and date are unchanged")
+    void patch_accountsOnly_shouldNotRecalculateFee() {
+        Transaction existing = transfer(15L, "A", "B", LocalDate.now());
+        existing.setFee(new BigDecimal("6.00"));
+        existing.setVersion(0L);
+
+        Transaction changes = new Transaction();
+        changes.setDestinationAccount("Z");
+
+        when(repo.findById(15L)).thenReturn(Optional.of(existing));
+        when(repo.patchScheduled(eq(15L), eq(0L), any(Transaction.class))).thenReturn(1);
+
+        Transaction result = service.patch(15L, changes, null);
+
+        ArgumentCaptor<Transaction> written = ArgumentCaptor.forClass(Transaction.class);
+        verify(repo).patchScheduled(eq(15L), eq(0L), written.capture());
+        assertThat(written.getValue().getDestinationAccount()).isEqualTo("Z");
+        assertThat(written.getValue().getOriginAccount()).isNull();
+        assertThat(written.getValue().getFee()).isNull();
+
+        assertThat(result.getOriginAccount()).isEqualTo("A");
+        assertThat(result.getDestinationAccount()).isEqualTo("Z");
+        assertThat(result.getFee()).isEqualByComparingTo("6.00");
+        assertThat(result.getVersion()).isEqualTo(1L);
     }
 
     @Test
-    @DisplayName("delete() should return true when entity exists and delete it")
+    @DisplayName("patch() should reject a blank account before touching the row")
+    void patch_blankAccount_shouldThrowBusinessException() {
+        Transaction changes = new Transaction();
+        changes.setOriginAccount("");
+        changes.setDestinationAccount("  ");
+
+        assertThatThrownBy(() -> service.patch(15L, changes, null))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("originAccount is required; destinationAccount is required");
+
+        verify(repo, never()).patchScheduled(any(), any(), any());
+        verify(totals, never()).reserve(any(), any());
+    }
+
+    @Test
+    @DisplayName("delete() should remove the cached version with one statement and update the account totals")
     void delete_existing_shouldReturnTrueAndDelete() {
-        when(repo.existsById(7L)).thenReturn(true);
-        doNothing().when(repo).deleteById(7L);
+        Transaction existing = transfer(7L, "A", "B", LocalDate.now());
+        existing.setVersion(2L);
+        when(repo.findById(7L)).thenReturn(Optional.of(existing));
+        when(repo.removeByIdAndVersion(7L, 2L)).thenReturn(1);
 
         boolean result = service.delete(7L);
 
         assertThat(result).isTrue();
-        verify(repo, times(1)).existsById(7L);
-        verify(repo, times(1)).deleteById(7L);
+        verify(repo, times(1)).removeByIdAndVersion(7L, 2L);
+        verify(repo, never()).existsById(anyLong());
+        verify(cache).invalidate(7L);
+        verify(totals).removed(existing);
+        verify(outbox).record(ChangeType.DELETED, existing);
+    }
+
+    @Test
+    @DisplayName("delete() should refuse a transaction the executor has claimed, after re-reading it")
+    void delete_processing_shouldThrowBusinessException() {
+        Transaction cached = transfer(7L, "A", "B", LocalDate.now());
+        cached.setVersion(2L);
+        Transaction claimed = transfer(7L, "A", "B", LocalDate.now());
+        claimed.setVersion(3L);
+        claimed.setStatus(TransactionStatus.PROCESSING);
+        when(repo.findById(7L)).thenReturn(Optional.of(cached), Optional.of(claimed));
+
+        assertThatThrownBy(() -> service.delete(7L))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("PROCESSING");
+
+        verify(repo, times(1)).removeByIdAndVersion(7L, 2L);
+        verify(totals, never()).removed(any());
+        verify(outbox, never()).record(any(), any());
     }
 
     @Test
     @DisplayName("delete() should return false when entity does not exist")
     void delete_nonExisting_shouldReturnFalse() {
-        when(repo.existsById(8L)).thenReturn(false);
+        when(repo.findById(8L)).thenReturn(Optional.empty());
 
         boolean result = service.delete(8L);
 
         assertThat(result).isFalse();
-        verify(repo, times(1)).existsById(8L);
-        verify(repo, never()).deleteById(anyLong());
+        verify(repo, never()).removeByIdAndVersion(any(), any());
+        verify(totals, never()).removed(any());
+    }
+
+    @Test
+    @DisplayName("update() should move the old values out of the account totals and the new ones in")
+    void update_shouldReplaceExposure() {
+        Transaction existing = transfer(16L, "A", "B", LocalDate.now());
+        existing.setVersion(0L);
+        when(repo.findById(16L)).thenReturn(Optional.of(existing));
+        when(repo.updateScheduled(eq(16L), eq(0L), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        Transaction result = service.update(16L, transfer(null, "C", "B", LocalDate.now()));
+
+        verify(totals).replaced(existing, result);
+    }
+
+    @Test
+    @DisplayName("update() should write an outbox record with the new version, and none when the row was not written")
+    void update_shouldRecordChange() {
+        Transaction existing = transfer(19L, "A", "B", LocalDate.now());
+        existing.setVersion(3L);
+        when(repo.findById(19L)).thenReturn(Optional.of(existing));
+        when(repo.updateScheduled(eq(19L), eq(3L), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        service.update(19L, transfer(null, "C", "B", LocalDate.now()));
+
+        verify(outbox).record(eq(ChangeType.UPDATED), transactionCaptor.capture());
+        assertThat(transactionCaptor.getValue().getOriginAccount()).isEqualTo("C");
+        assertThat(transactionCaptor.getValue().getVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("changes() should read the outbox after the cursor with the limit capped")
+    void changes_shouldCapLimit() {
+        TransactionChangePage page = new TransactionChangePage(List.of(), 42L);
+        when(outbox.changesSince(42L, TransactionService.MAX_PAGE_SIZE)).thenReturn(page);
+
+        assertThat(service.changes(42L, 50_000)).isSameAs(page);
+    }
+
+    @Test
+    @DisplayName("create() should hold the amount on the ledger and release it when the insert fails")
+    void create_failedInsert_shouldReleaseLedger() {
+        Transaction toCreate = transfer(null, "A", "B", LocalDate.now());
+        when(repo.save(any(Transaction.class))).thenThrow(new DataIntegrityViolationException("constraint"));
+
+        assertThatThrownBy(() -> service.create(toCreate)).isInstanceOf(DataIntegrityViolationException.class);
+
+        verify(totals).reserve(toCreate);
+        verify(totals).discard(toCreate);
+        verify(totals, never()).created(any());
+        verify(outbox, never()).record(any(), any());
+    }
+
+    @Test
+    @DisplayName("update() should give back the ledger change when the row was not written")
+    void update_notWritten_shouldRevertLedger() {
+        Transaction existing = transfer(18L, "A", "B", LocalDate.now());
+        existing.setVersion(0L);
+        when(repo.findById(18L)).thenReturn(Optional.of(existing), Optional.empty());
+        when(repo.updateScheduled(eq(18L), eq(0L), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        Transaction result = service.update(18L, transfer(null, "A", "B", LocalDate.now()));
+
+        assertThat(result).isNull();
+        verify(totals).reserve(eq(existing), any());
+        verify(totals).discard(eq(existing), any());
+    }
+
+    @Test
+    @DisplayName("findIncludingArchive() should fall back to the archive when the hot table has no row")
+    void findIncludingArchive_shouldFallBackToArchive() {
+        ArchivedTransaction archived = new ArchivedTransaction();
+        archived.setId(17L);
+        archived.setPartitionMonth(202501);
+        archived.setOriginAccount("A");
+        archived.setAmount(BigDecimal.valueOf(100));
+        archived.setScheduledDate(LocalDate.of(2025, 1, 15));
+        archived.setVersion(2L);
+        archived.setStatus(TransactionStatus.EXECUTED);
+        when(repo.findById(17L)).thenReturn(Optional.empty());
+        when(archive.findById(17L)).thenReturn(Optional.of(archived));
+
+        Optional<Transaction> found = service.findIncludingArchive(17L);
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getId()).isEqualTo(17L);
+        assertThat(found.get().getStatus()).isEqualTo(TransactionStatus.EXECUTED);
+        assertThat(found.get().getVersion()).isEqualTo(2L);
+        // uma linha da tabela quente não consulta o arquivo
+        when(repo.findById(18L)).thenReturn(Optional.of(transfer(18L, "A", "B", LocalDate.now())));
+        assertThat(service.findIncludingArchive(18L)).isPresent();
+        verify(archive, never()).findById(18L);
+    }
+
+    private static IdempotencyRecord record(String key, Transaction created) {
+        return new IdempotencyRecord(key, IdempotencyStore.requestHash(created), created);
+    }
+
+    private static TransactionResponse response(Long id, LocalDate scheduledDate) {
+        TransactionResponse r = new TransactionResponse();
+        r.setId(id);
+        r.setScheduledDate(scheduledDate);
+        return r;
+    }
+
+    private static Transaction transfer(Long id, String origin, String destination, LocalDate scheduledDate) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setOriginAccount(origin);
+        t.setDestinationAccount(destination);
+        t.setAmount(BigDecimal.valueOf(100));
+        t.setScheduledDate(scheduledDate);
+        return t;
     }
 }
@@ -0,0 +1,147 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.config.WriteBehindProperties;
+import natixis.crud_project.transfer.models.ChangeType;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.repositories.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionWriteBehindTest {
+
+    @Mock
+    private TransactionService service;
+
+    @Mock
+    private TransactionRepository repo;
+
+    @Mock
+    private AccountTotals totals;
+
+    @Mock
+    private TransactionOutbox outbox;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Integer> committedBatches = new ArrayList<>();
+
+    private TransactionWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setBatchSize(10);
+        // espera longa o suficiente para os três pedidos do teste entrarem no mesmo batch
+        properties.setMaxDelay(Duration.ofMillis(200));
+
+        lenient().when(service.prepare(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+
+        writeBehind = new TransactionWriteBehind(service, repo, totals, outbox, transactionTemplate, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBehind.shutdown();
+    }
+
+    @Test
+    @DisplayName("create() calls should share one group commit and complete after it")
+    void create_shouldGroupCommitAndCompleteFutures() throws Exception {
+        doAnswer(invocation -> {
+            List<Transaction> rows = invocation.getArgument(0);
+            committedBatches.add(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(repo).insertAll(anyList());
+
+        CompletableFuture<Transaction> first = writeBehind.create(transfer());
+        CompletableFuture<Transaction> second = writeBehind.create(transfer());
+        CompletableFuture<Transaction> third = writeBehind.create(transfer());
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getId()).isEqualTo(100L);
+        assertThat(second.get(5, TimeUnit.SECONDS).getId()).isEqualTo(101L);
+        assertThat(third.get(5, TimeUnit.SECONDS).getId()).isEqualTo(102L);
+        assertThat(committedBatches).containsExactly(3);
+        verify(service, times(3)).prepare(any());
+        verify(totals, times(3)).created(any());
+        verify(outbox).recordAll(eq(ChangeType.CREATED), anyList());
+    }
+
+    @Test
+    @DisplayName("a failed group commit should be retried row by row so only the bad row fails")
+    void create_failedBatch_shouldRetryIndividually() throws Exception {
+        doThrow(new DataIntegrityViolationException("batch")).when(repo).insertAll(anyList());
+
+        Transaction bad = transfer();
+        bad.setOriginAccount(null);
+        when(repo.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction t = invocation.getArgument(0);
+            if (t.getOriginAccount() == null) {
+                throw new DataIntegrityViolationException("originAccount");
+            }
+            t.setId(7L);
+            return t;
+        });
+
+        CompletableFuture<Transaction> good = writeBehind.create(transfer());
+        CompletableFuture<Transaction> failed = writeBehind.create(bad);
+
+        assertThat(good.get(5, TimeUnit.SECONDS).getId()).isEqualTo(7L);
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("create() after shutdown should be rejected and give the reservation back")
+    void create_afterShutdown_shouldBeRejected() throws Exception {
+        writeBehind.shutdown();
+        Transaction t = transfer();
+
+        assertThatThrownBy(() -> writeBehind.create(t))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasMessage("Write-behind pipeline stopped");
+        verify(service).discard(t);
+        assertThat(writeBehind.queued()).isZero();
+        verify(repo, never()).insertAll(anyList());
+    }
+
+    private static Transaction transfer() {
+        Transaction t = new Transaction();
+        t.setOriginAccount("A");
+        t.setDestinationAccount("B");
+        t.setAmount(BigDecimal.valueOf(100));
+        t.setScheduledDate(LocalDate.now());
+        return t;
+    }
+}
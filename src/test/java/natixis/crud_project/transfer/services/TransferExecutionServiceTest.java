@@ -0,0 +1,216 @@
+package natixis.crud_project.transfer.services;
+
+import natixis.crud_project.transfer.config.ExecutionProperties;
+import natixis.crud_project.transfer.models.ChangeType;
+import natixis.crud_project.transfer.models.Transaction;
+import natixis.crud_project.transfer.models.TransactionChange;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import natixis.crud_project.transfer.repositories.TransactionChangeRepository;
+import natixis.crud_project.transfer.repositories.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferExecutionServiceTest {
+
+    @Mock
+    private TransactionRepository repo;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransactionCache cache;
+
+    @Mock
+    private AccountTotals totals;
+
+    @Mock
+    private TransactionChangeRepository changeRepo;
+
+    private final List<Long> executedIds = new ArrayList<>();
+
+    private TransferExecutionService service;
+
+    @BeforeEach
+    void setUp() {
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setWorkers(1);
+        properties.setWorkerBatchSize(10);
+        properties.setMaxAttempts(2);
+        properties.setRetryBackoff(Duration.ofSeconds(30));
+        properties.setMaxRetryBackoff(Duration.ofMinutes(5));
+
+        TransferExecutor executor = t -> {
+            if (t.getId() == 2L) {
+                throw new IllegalStateException("rail unavailable");
+            }
+            executedIds.add(t.getId());
+        };
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+
+        service = new TransferExecutionService(repo, executor, cache, totals, new TransactionOutbox(changeRepo, true),
+                transactionTemplate, properties);
+    }
+
+    @Test
+    @DisplayName("drain() should claim due transfers, execute them and record success and retryable failure")
+    void drain_shouldExecuteClaimedTransfersAndRecordResults() throws Exception {
+        Transaction ok = due(1L);
+        Transaction failing = due(2L);
+        when(repo.findDueForUpdate(eq(TransactionStatus.SCHEDULED), any(LocalDate.class), any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of(ok, failing));
+
+        int claimed = service.drain();
+        service.shutdown();
+
+        assertThat(claimed).isEqualTo(2);
+        assertThat(ok.getStatus()).isEqualTo(TransactionStatus.PROCESSING);
+        assertThat(ok.getClaimedAt()).isNotNull();
+        assertThat(executedIds).containsExactly(1L);
+        verify(repo).markExecuted(eq(List.of(1L)), any());
+        // primeira tentativa de 2 -> volta a SCHEDULED
+        verify(repo).markAttemptFailed(eq(2L), eq(TransactionStatus.SCHEDULED), eq("rail unavailable"),
+                any(LocalDateTime.class));
+        assertThat(service.inFlight()).isZero();
+        // reclamadas e depois executada / falhada: a cache nunca fica com SCHEDULED
+        verify(cache, times(2)).invalidate(1L);
+        verify(cache, times(2)).invalidate(2L);
+    }
+
+    @Test
+    @DisplayName("drain() should release expired claims and evict them from the cache")
+    void drain_shouldReleaseExpiredClaims() {
+        when(repo.findExpiredClaims(any())).thenReturn(List.of(7L, 8L));
+        when(repo.releaseExpiredClaims(eq(List.of(7L, 8L)), any())).thenReturn(2);
+        when(repo.findDueForUpdate(eq(TransactionStatus.SCHEDULED), any(LocalDate.class), any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of());
+
+        service.drain();
+
+        verify(cache).invalidate(7L);
+        verify(cache).invalidate(8L);
+    }
+
+    @Test
+    @DisplayName("drain() should mark a transfer FAILED once it reaches max attempts")
+    void drain_shouldFailAfterMaxAttempts() throws Exception {
+        Transaction failing = due(2L);
+        failing.setAttempts(1);
+        when(repo.findDueForUpdate(eq(TransactionStatus.SCHEDULED), any(LocalDate.class), any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of(failing));
+        when(repo.markAttemptFailed(2L, TransactionStatus.FAILED, "rail unavailable", null)).thenReturn(1);
+
+        service.drain();
+        service.shutdown();
+
+        verify(repo).markAttemptFailed(2L, TransactionStatus.FAILED, "rail unavailable", null);
+        verify(repo, never()).markExecuted(anyCollection(), any());
+        verify(totals).removed(failing);
+    }
+
+    @Test
+    @DisplayName("a failed attempt should not be claimed again before its backoff expires")
+    void failedAttempt_shouldWaitForBackoff() {
+        Transaction failing = due(2L);
+        List<Transaction> table = List.of(failing);
+        // a query de claim sobre uma "tabela" em memória, com o mesmo filtro do JPQL
+        when(repo.findDueForUpdate(eq(TransactionStatus.SCHEDULED), any(LocalDate.class), any(LocalDateTime.class),
+                any(Limit.class))).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(2);
+            return table.stream()
+                    .filter(t -> t.getStatus() == TransactionStatus.SCHEDULED)
+                    .filter(t -> t.getNextAttemptAt() == null || !t.getNextAttemptAt().isAfter(now))
+                    .toList();
+        });
+        when(repo.markAttemptFailed(eq(2L), any(), any(), any())).thenAnswer(invocation -> {
+            failing.setStatus(invocation.getArgument(1));
+            failing.setNextAttemptAt(invocation.getArgument(3));
+            return 1;
+        });
+        LocalDateTime now = LocalDateTime.now();
+
+        service.process(service.claim(now, 10));
+
+        assertThat(failing.getStatus()).isEqualTo(TransactionStatus.SCHEDULED);
+        assertThat(service.claim(now.plusSeconds(1), 10)).isEmpty();
+        assertThat(service.claim(now.plusSeconds(29), 10)).isEmpty();
+        assertThat(service.claim(now.plusSeconds(31), 10)).containsExactly(failing);
+    }
+
+    @Test
+    @DisplayName("the change feed should follow a transfer to EXECUTED with consecutive versions")
+    void changeFeed_shouldFollowTransferToExecuted() {
+        Transaction row = due(1L);
+        row.setVersion(0L);
+        // o flush e o UPDATE em massa sobre uma "tabela" de uma linha, com o @Version da JPA
+        when(repo.findDueForUpdate(eq(TransactionStatus.SCHEDULED), any(LocalDate.class), any(LocalDateTime.class),
+                any(Limit.class))).thenReturn(List.of(row));
+        doAnswer(invocation -> {
+            row.setVersion(row.getVersion() + 1);
+            return null;
+        }).when(repo).flush();
+        when(repo.markExecuted(eq(List.of(1L)), any())).thenAnswer(invocation -> {
+            row.setStatus(TransactionStatus.EXECUTED);
+            row.setExecutedAt(invocation.getArgument(1));
+            row.setVersion(row.getVersion() + 1);
+            return 1;
+        });
+        when(repo.findAllById(List.of(1L))).thenReturn(List.of(row));
+        List<TransactionChange> feed = new ArrayList<>();
+        doAnswer(invocation -> {
+            feed.addAll(invocation.getArgument(0));
+            return null;
+        }).when(changeRepo).insertAll(anyList());
+
+        service.process(service.claim(LocalDateTime.now(), 10));
+
+        assertThat(feed).extracting(TransactionChange::getStatus)
+                .containsExactly(TransactionStatus.PROCESSING, TransactionStatus.EXECUTED);
+        assertThat(feed).extracting(TransactionChange::getVersion).containsExactly(1L, 2L);
+        assertThat(feed).extracting(TransactionChange::getType).containsOnly(ChangeType.UPDATED);
+        assertThat(feed).extracting(TransactionChange::getTransactionId).containsOnly(1L);
+        assertThat(feed.get(1).getExecutedAt()).isEqualTo(row.getExecutedAt());
+    }
+
+    @Test
+    @DisplayName("backoff() should double per failed attempt up to the maximum")
+    void backoff_shouldGrowExponentiallyUpToTheMaximum() {
+        assertThat(service.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(service.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(service.backoff(3)).isEqualTo(Duration.ofSeconds(120));
+        assertThat(service.backoff(10)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    private static Transaction due(Long id) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setOriginAccount("PT1");
+        t.setDestinationAccount("PT2");
+        t.setAmount(BigDecimal.valueOf(100));
+        t.setScheduledDate(LocalDate.now());
+        return t;
+    }
+}
@@ -0,0 +1,135 @@
+package natixis.crud_project.transfer.utils;
+
+import natixis.crud_project.transfer.exceptions.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeeScheduleTest {
+
+    private final FeeSchedule schedule = TaxCalculator.defaultSchedule();
+
+    @Test
+    void matchesLegacyRulesForEveryTierBoundary() {
+        // Valores nas fronteiras de cada band e de cada intervalo de dias
+        String[] amounts = {"0.01", "1.00", "999.99", "1000.00", "1000.01", "1000.005", "1500.55",
+                "2000.00", "2000.01", "3000.00", "123456.78", "99999999.99"};
+
+        for (String value : amounts) {
+            BigDecimal amount = new BigDecimal(value);
+            for (long days = 0; days <= 60; days++) {
+                assertSameOutcome(amount, days);
+            }
+        }
+    }
+
+    @Test
+    void centsFastPathMatchesBigDecimalPath() {
+        long[] amountsInCents = {1, 99, 100_000, 100_001, 150_055, 200_000, 200_001, 300_000, 12_345_678};
+
+        for (long cents : amountsInCents) {
+            BigDecimal amount = BigDecimal.valueOf(cents, 2);
+            for (long days = 0; days <= 60; days++) {
+                BigDecimal expected;
+                try {
+                    expected = schedule.calculateFee(amount, days);
+                } catch (BusinessException e) {
+                    final long d = days;
+                    assertThrows(BusinessException.class, () -> schedule.calculateFeeCents(cents, d));
+                    continue;
+                }
+                assertEquals(expected.unscaledValue().longValueExact(), schedule.calculateFeeCents(cents, days),
+                        "amount=" + amount + " days=" + days);
+            }
+        }
+    }
+
+    @Test
+    void keepsLegacyRejectionMessages() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> schedule.calculateFee(new BigDecimal("500.00"), 2));
+        assertEquals("No tax rule applies for amount <= 1000 when scheduled date is not today", ex.getMessage());
+
+        ex = assertThrows(BusinessException.class,
+                () -> schedule.calculateFee(new BigDecimal("3000.00"), 5));
+        assertEquals("No tax rule applies for amount > 2000 with the given scheduled date", ex.getMessage());
+    }
+
+    @Test
+    void rejectsOverlappingDayIntervals() {
+        FeeSchedule.Builder builder = FeeSchedule.builder("broken")
+                .band("X", null, null)
+                .rule(0, 10L, new BigDecimal("0.01"), null)
+                .rule(5, 20L, new BigDecimal("0.02"), null);
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    void priceReturnsSharedRejectionsWithoutThrowing() {
+        FeeResult first = schedule.price(new BigDecimal("500.00"), 2);
+        FeeResult second = schedule.price(new BigDecimal("750.00"), 9);
+
+        assertTrue(first.isRejected());
+        assertSame(first, second);
+        assertSame(first.toException(), second.toException());
+        assertEquals(FeeRejection.NO_RULE_FOR_DAYS, first.getRejection());
+        assertEquals("A", first.getTier());
+        assertEquals(0, first.toException().getStackTrace().length);
+
+        assertSame(schedule.price(BigDecimal.ZERO, 0), schedule.price(new BigDecimal("-1"), 3));
+        assertEquals(FeeRejection.DATE_IN_PAST, schedule.price(BigDecimal.TEN, -1).getRejection());
+    }
+
+    @Test
+    void pricedResultCarriesFeeAndTier() {
+        FeeResult result = schedule.price(new BigDecimal("1500.00"), 5);
+
+        assertFalse(result.isRejected());
+        assertEquals(new BigDecimal("135.00"), result.getFee());
+        assertEquals("B", result.getTier());
+        assertNull(result.toException());
+    }
+
+    private void assertSameOutcome(BigDecimal amount, long days) {
+        BigDecimal expected;
+        try {
+            expected = legacyFee(amount, days);
+        } catch (BusinessException e) {
+            BusinessException actual = assertThrows(BusinessException.class, () -> schedule.calculateFee(amount, days),
+                    "amount=" + amount + " days=" + days);
+            assertEquals(e.getMessage(), actual.getMessage());
+            return;
+        }
+        assertEquals(expected, schedule.calculateFee(amount, days), "amount=" + amount + " days=" + days);
+    }
+
+    // Cópia da escada if/else original do TaxCalculator, usada como referência
+    private static BigDecimal legacyFee(BigDecimal amount, long days) {
+        if (amount.compareTo(new BigDecimal("1000.00")) <= 0) {
+            if (days == 0) {
+                return amount.multiply(new BigDecimal("0.03")).add(new BigDecimal("3.00")).setScale(2, RoundingMode.HALF_UP);
+            }
+            throw new BusinessException("No tax rule applies for amount <= 1000 when scheduled date is not today");
+        }
+        if (amount.compareTo(new BigDecimal("2000.00")) <= 0) {
+            if (days >= 1 && days <= 10) {
+                return amount.multiply(new BigDecimal("0.09")).setScale(2, RoundingMode.HALF_UP);
+            }
+            throw new BusinessException("No tax rule applies for amount in (1000,2000] with the given scheduled date");
+        }
+        if (days >= 11 && days <= 20) {
+            return amount.multiply(new BigDecimal("0.082")).setScale(2, RoundingMode.HALF_UP);
+        } else if (days >= 21 && days <= 30) {
+            return amount.multiply(new BigDecimal("0.069")).setScale(2, RoundingMode.HALF_UP);
+        } else if (days >= 31 && days <= 40) {
+            return amount.multiply(new BigDecimal("0.047")).setScale(2, RoundingMode.HALF_UP);
+        } else if (days > 40) {
+            return amount.multiply(new BigDecimal("0.017")).setScale(2, RoundingMode.HALF_UP);
+        }
+        throw new BusinessException("No tax rule applies for amount > 2000 with the given scheduled date");
+    }
+}
@@ -0,0 +1,189 @@
+package natixis.crud_project.transfer.utils;
+
+import natixis.crud_project.transfer.dto.TransactionRequest;
+import natixis.crud_project.transfer.dto.TransactionResponse;
+import natixis.crud_project.transfer.dto.TransactionStatementPage;
+import natixis.crud_project.transfer.models.TransactionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionBinaryCodecTest {
+
+    @Test
+    void roundTripsEveryResponseField() throws IOException {
+        TransactionResponse original = response();
+        original.setExecutedAt(LocalDateTime.of(2025, 11, 21, 0, 0, 1, 999_999_000));
+
+        TransactionBinaryReader reader = reader(write(original));
+
+        assertEquals(original, reader.readResponse());
+        assertNull(reader.readResponse());
+    }
+
+    @Test
+    void leavesMissingFieldsNull() throws IOException {
+        TransactionResponse sparse = new TransactionResponse();
+        sparse.setId(7L);
+        sparse.setAmount(new BigDecimal("0.01"));
+
+        TransactionResponse read = reader(write(sparse)).readResponse();
+
+        assertEquals(sparse, read);
+        assertNull(read.getOriginAccount());
+        assertNull(read.getStatus());
+    }
+
+    @Test
+    void encodesAmountsAsCentsAndDatesBeforeTheEpoch() throws IOException {
+        TransactionResponse t = response();
+        t.setAmount(new BigDecimal("123456789012.34"));
+        t.setScheduledDate(LocalDate.of(1969, 12, 31));
+        t.setCreatedAt(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 500_000_000));
+
+        TransactionResponse read = reader(write(t)).readResponse();
+
+        assertEquals(new BigDecimal("123456789012.34"), read.getAmount());
+        assertEquals(LocalDate.of(1969, 12, 31), read.getScheduledDate());
+        assertEquals(t.getCreatedAt(), read.getCreatedAt());
+    }
+
+    @Test
+    void readsRequestsUntilTheEndOfTheBody() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TransactionBinaryWriter writer = new TransactionBinaryWriter(bytes);
+        TransactionRequest first = new TransactionRequest("PT1", "PT2", new BigDecimal("10.50"), LocalDate.of(2025, 12, 1));
+        TransactionRequest second = new TransactionRequest("PT3", "PT4", new BigDecimal("2000.00"), LocalDate.of(2025, 12, 2));
+        writer.write(first);
+        writer.write(second);
+        writer.flush();
+
+        TransactionBinaryReader reader = reader(bytes.toByteArray());
+
+        assertEquals(first, reader.readRequest());
+        assertEquals(second, reader.readRequest());
+        assertNull(reader.readRequest());
+    }
+
+    @Test
+    void readsThePageCursorBeforeTheRecords() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TransactionBinaryWriter writer = new TransactionBinaryWriter(bytes);
+        writer.writeCursor(42L);
+        writer.write(response());
+        writer.flush();
+
+        TransactionBinaryReader reader = reader(bytes.toByteArray());
+
+        assertEquals(42L, reader.readCursor());
+        assertEquals(response(), reader.readResponse());
+        assertNull(reader(new byte[]{0}).readCursor());
+    }
+
+    @Test
+    void readsAStatementPageWithItsDateAndIdCursor() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TransactionBinaryWriter writer = new TransactionBinaryWriter(bytes);
+        writer.writeCursor(LocalDate.of(2025, 12, 5), 1234L);
+        writer.write(response());
+        writer.flush();
+
+        TransactionStatementPage page = reader(bytes.toByteArray()).readStatementPage();
+
+        assertEquals(LocalDate.of(2025, 12, 5), page.getNextDate());
+        assertEquals(1234L, page.getNextId());
+        assertEquals(List.of(response()), page.getItems());
+    }
+
+    @Test
+    void skipsBytesAppendedToARecordByANewerWriter() throws IOException {
+        byte[] record = write(response());
+        byte[] longer = Arrays.copyOf(record, record.length + 3);
+        // comprimento + 3 bytes desconhecidos no fim do registo
+        longer[3] = (byte) (record[3] + 3);
+        byte[] body = Arrays.copyOf(longer, longer.length + record.length);
+        System.arraycopy(record, 0, body, longer.length, record.length);
+
+        TransactionBinaryReader reader = reader(body);
+
+        assertEquals(response(), reader.readResponse());
+        assertEquals(response(), reader.readResponse());
+    }
+
+    @Test
+    void failsOnATruncatedRecord() throws IOException {
+        byte[] record = write(response());
+
+        TransactionBinaryReader reader = reader(Arrays.copyOf(record, record.length - 1));
+
+        assertThrows(EOFException.class, reader::readResponse);
+    }
+
+    @Test
+    void readsTheLargestValidRecord() throws IOException {
+        String text = "x".repeat(0xFFFF);
+        TransactionResponse largest = response();
+        largest.setOriginAccount(text);
+        largest.setDestinationAccount(text);
+        largest.setFeeScheduleVersion(text);
+        largest.setExecutedAt(LocalDateTime.of(2025, 12, 5, 9, 0));
+
+        byte[] record = write(largest);
+
+        assertEquals(TransactionBinaryWriter.MAX_RECORD_LENGTH + 4, record.length);
+        assertEquals(largest, reader(record).readResponse());
+    }
+
+    @Test
+    void rejectsALengthPrefixBeyondTheLargestRecord() {
+        TransactionBinaryReader reader = reader(new byte[]{0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1, 2, 3});
+
+        IOException ex = assertThrows(IOException.class, reader::readResponse);
+
+        assertFalse(ex instanceof EOFException);
+        assertEquals("Invalid record length " + Integer.MAX_VALUE, ex.getMessage());
+    }
+
+    @Test
+    void isSmallerThanTheNdjsonLine() throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(json, StandardCharsets.UTF_8);
+        new TransactionLineWriter(writer).writeNdjson(response());
+        writer.flush();
+
+        int binary = write(response()).length;
+
+        assertTrue(binary * 2 < json.size(), "binary " + binary + " bytes, json " + json.size() + " bytes");
+    }
+
+    private static byte[] write(TransactionResponse t) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TransactionBinaryWriter writer = new TransactionBinaryWriter(bytes);
+        writer.write(t);
+        writer.flush();
+        return bytes.toByteArray();
+    }
+
+    private static TransactionBinaryReader reader(byte[] bytes) {
+        return new TransactionBinaryReader(new ByteArrayInputStream(bytes));
+    }
+
+    private static TransactionResponse response() {
+        return new TransactionResponse(1234L, "PT50000000000000000001", "PT60000000000000000001",
+                new BigDecimal("3000.00"), LocalDate.of(2025, 12, 5), new BigDecimal("246.00"), "2025.1",
+                LocalDateTime.of(2025, 11, 20, 10, 15, 30, 123_456_000), 3L, TransactionStatus.SCHEDULED, null);
+    }
+}